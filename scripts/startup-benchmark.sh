@@ -0,0 +1,122 @@
+#!/usr/bin/env bash
+# Compara el arranque en frío y la memoria (RSS) de las tres variantes de ms-tasks:
+#   jvm     jar de Spring Boot (Dockerfile)
+#   cds     jar con Spring AOT + archivo AppCDS (Dockerfile.cds)
+#   native  imagen nativa de GraalVM (Dockerfile.native); se omite si no hay native-image en el PATH
+#
+# Uso: scripts/startup-benchmark.sh [ejecuciones]
+#   SKIP_BUILD=1  reutiliza lo compilado en $OUT
+#   JAVA_OPTS     opciones de las variantes JVM (por defecto las del Dockerfile)
+#   NATIVE_OPTS   opciones de la imagen nativa
+set -euo pipefail
+
+RUNS=${1:-5}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+# Fuera de target/: cada variante se compila con mvn clean
+OUT=${OUT:-${TMPDIR:-/tmp}/ms-tasks-startup}
+PORT=${PORT:-18088}
+JAVA_OPTS=${JAVA_OPTS:-"-Xmx512m -Xms256m"}
+NATIVE_OPTS=${NATIVE_OPTS:-"-Xmx512m"}
+MAIN_CLASS=com.microservicios.tasks.TasksApplication
+
+# Con Spring AOT Eureka no se puede desactivar al arrancar: todas las variantes intentan registrarse
+# contra un servidor inexistente, para que la comparación sea justa
+export TASKS_PORT=$PORT
+export URL_EUREKA=http://localhost:1/eureka
+
+# AppCDS solo archiva clases de jars normales (no anidados ni directorios): application.jar con las
+# clases del servicio, lib/ con las dependencias y el classpath en el orden de BOOT-INF/classpath.idx
+explode() {
+    local jar=$1 dir=$2 tmp
+    tmp=$(mktemp -d)
+    (cd "$tmp" && unzip -q "$ROOT/$jar")
+    jar cf "$dir/application.jar" -C "$tmp/BOOT-INF/classes" .
+    mv "$tmp/BOOT-INF/lib" "$dir/lib"
+    { printf -- '-cp application.jar'; sed -n 's|^- "BOOT-INF/\(.*\)"$|:\1|p' "$tmp/BOOT-INF/classpath.idx" | tr -d '\n'; } \
+        > "$dir/classpath.args"
+    rm -rf "$tmp"
+}
+
+build() {
+    mkdir -p "$OUT"
+    cd "$ROOT"
+
+    echo "== Compilando jvm"
+    mvn -B -q clean package -DskipTests
+    rm -rf "$OUT/jvm" && mkdir -p "$OUT/jvm"
+    cp target/ms-tasks-*.jar "$OUT/jvm/app.jar"
+
+    echo "== Compilando cds (Spring AOT + entrenamiento AppCDS)"
+    mvn -B -q clean package -Pcds -DskipTests
+    rm -rf "$OUT/cds" && mkdir -p "$OUT/cds/app"
+    explode target/ms-tasks-*.jar "$OUT/cds/app"
+    # shellcheck disable=SC2086
+    (cd "$OUT/cds/app" && java $JAVA_OPTS @classpath.args -XX:ArchiveClassesAtExit=app.jsa \
+        -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+        $MAIN_CLASS --server.port=0 --logging.level.root=WARN > ../training.log 2>&1)
+
+    if command -v native-image > /dev/null; then
+        echo "== Compilando native"
+        mvn -B -q clean -Pnative -DskipTests native:compile
+        rm -rf "$OUT/native" && mkdir -p "$OUT/native"
+        cp target/ms-tasks "$OUT/native/ms-tasks"
+    else
+        echo "== native-image no está en el PATH: se omite la variante native"
+        rm -rf "$OUT/native"
+    fi
+}
+
+# Arranca una variante, espera a que responda HTTP y anota el tiempo (ms) y la RSS (KB) en ese momento
+measure() {
+    local name=$1 dir=$2
+    shift 2
+    local log=$OUT/$name.log start pid
+    start=$(date +%s%N)
+    # shellcheck disable=SC2068
+    (cd "$dir" && exec $@) > "$log" 2>&1 &
+    pid=$!
+    # Cualquier respuesta vale: el health puede estar DOWN porque Eureka no existe
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health")" != "000" ]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "La variante $name terminó antes de arrancar; ver $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    local ready_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    local rss_kb
+    rss_kb=$(awk '/^VmRSS:/ {print $2}' "/proc/$pid/status")
+    kill "$pid" && wait "$pid" 2> /dev/null || true
+    echo "$ready_ms $rss_kb"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+run() {
+    local name=$1 dir=$2
+    shift 2
+    local samples=$OUT/$name.samples
+    : > "$samples"
+    for _ in $(seq "$RUNS"); do
+        measure "$name" "$dir" "$@" >> "$samples"
+    done
+    printf '%-8s %12s %12s\n' "$name" \
+        "$(cut -d' ' -f1 "$samples" | median)" "$(( $(cut -d' ' -f2 "$samples" | median) / 1024 ))"
+}
+
+[ "${SKIP_BUILD:-0}" = 1 ] || build
+
+echo
+echo "Mediana de $RUNS arranques (hasta la primera respuesta HTTP)"
+printf '%-8s %12s %12s\n' variante "arranque ms" "RSS MB"
+# shellcheck disable=SC2086
+run jvm "$OUT/jvm" java $JAVA_OPTS -jar app.jar
+# shellcheck disable=SC2086
+run cds "$OUT/cds/app" java $JAVA_OPTS @classpath.args -XX:SharedArchiveFile=app.jsa \
+    -Dspring.aot.enabled=true $MAIN_CLASS
+if [ -x "$OUT/native/ms-tasks" ]; then
+    # shellcheck disable=SC2086
+    run native "$OUT/native" ./ms-tasks $NATIVE_OPTS
+fi
@@ -0,0 +1,119 @@
+package com.microservicios.tasks.benchmark;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.google.api.client.http.HttpTransport;
+import com.microservicios.tasks.TasksApplication;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Carga concurrente sobre un servidor real (Tomcat con pocos hilos y heap fijo) con Google lento:
+ * en el modo bloqueante cada petición en curso ocupa un hilo de Tomcat; en el asíncrono el hilo se
+ * libera y la capacidad la marca el pool de consultas a Google.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+// Una conexión keep-alive por hilo de carga (HttpURLConnection reutiliza como mucho http.maxConnections)
+@Fork(value = 1, jvmArgsAppend = {"-Xms256m", "-Xmx256m", "-Dhttp.maxConnections=512"})
+@Threads(256)
+public class AsyncModeBenchmark {
+
+    @Param({"false", "true"})
+    private boolean asyncEnabled;
+
+    // Latencia de cada llamada a la API de Google simulada
+    @Param({"100"})
+    private int googleLatencyMillis;
+
+    @Param({"32"})
+    private int tomcatThreads;
+
+    private GenericApplicationContext context;
+    private URL url;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.quiet();
+        FakeGoogleTasksTransport google = new FakeGoogleTasksTransport();
+        String listId = google.addTaskList("Lista");
+        for (int i = 0; i < 20; i++) {
+            google.addTask(listId, "Tarea " + i, "needsAction");
+        }
+        google.setLatency(Duration.ofMillis(googleLatencyMillis));
+
+        // Sin caché, coalescing ni límites: cada petición llega a Google
+        context = (GenericApplicationContext) new SpringApplicationBuilder(TasksApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+                        .registerBean("fakeGoogleTasksTransport", HttpTransport.class, () -> google,
+                                definition -> definition.setPrimary(true)))
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + tomcatThreads,
+                        "--server.tomcat.threads.min-spare=" + tomcatThreads,
+                        "--eureka.client.enabled=false",
+                        "--tasks.async.enabled=" + asyncEnabled,
+                        "--google.tasks.fetch.max-concurrency=512",
+                        "--google.resilience.bulkhead.max-concurrent-calls=512",
+                        "--tasks.cache.enabled=false",
+                        "--tasks.coalescing.enabled=false",
+                        "--tasks.rate-limit.enabled=false",
+                        "--google.auth.token-validation.enabled=false",
+                        "--logging.level.root=ERROR",
+                        "--logging.level.com.microservicios.tasks=ERROR");
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        try {
+            url = URI.create("http://localhost:" + port + "/api/tasks").toURL();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%n# async=%s: pico de hilos %d, heap usado %d MB de %d MB%n", asyncEnabled,
+                ManagementFactory.getThreadMXBean().getPeakThreadCount(),
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20, runtime.maxMemory() >> 20);
+        context.close();
+    }
+
+    @Benchmark
+    public int getTasks() throws Exception {
+        // Cliente bloqueante y ligero: con pocos núcleos un cliente NIO acaba siendo el cuello de botella
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestProperty("Authorization", "Bearer benchmark-token");
+        if (connection.getResponseCode() != 200) {
+            throw new IllegalStateException("HTTP " + connection.getResponseCode());
+        }
+        try (InputStream body = connection.getInputStream()) {
+            return body.readAllBytes().length;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.microservicios.tasks.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+final class BenchmarkLogging {
+
+    private BenchmarkLogging() {
+    }
+
+    // Sin la configuración de Spring, logback registra todo en DEBUG y el I/O de consola domina la medición
+    static void quiet() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+    }
+}
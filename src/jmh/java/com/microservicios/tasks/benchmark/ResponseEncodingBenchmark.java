@@ -0,0 +1,104 @@
+package com.microservicios.tasks.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.microservicios.tasks.dto.ApiResponse;
+import com.microservicios.tasks.dto.TasksResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Coste de cada codificación de GET /api/tasks: CPU para codificar la respuesta en el servidor y para leerla en
+ * el cliente, con y sin gzip. Los bytes que viajan por la red se imprimen al preparar cada combinación
+ * ({@code bytes: ...} en la salida).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    // Un usuario normal, uno con mucho histórico y el límite práctico de una respuesta completa
+    @Param({"50", "500", "5000"})
+    private int taskCount;
+
+    @Param({"20"})
+    private int tasksPerList;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"identity", "gzip"})
+    private String contentEncoding;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<TasksResponse> response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Misma configuración que BinaryFormatsConfig y spring.jackson.* en application.properties
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DATE_KEYS_AS_TIMESTAMPS);
+        switch (format) {
+            case "smile" -> builder.factory(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build());
+            case "cbor" -> builder.factory(new CBORFactory());
+            default -> {
+            }
+        }
+        objectMapper = builder.build();
+        response = ApiResponse.success("Listas de tareas obtenidas exitosamente",
+                TasksResponse.from(SyntheticTasks.taskLists(taskCount, tasksPerList)));
+        encoded = encode();
+        System.out.printf("%nbytes: taskCount=%d format=%s contentEncoding=%s -> %d%n",
+                taskCount, format, contentEncoding, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        // Tomcat comprime con el nivel por defecto de Deflater, igual que GZIPOutputStream
+        try (OutputStream out = "gzip".equals(contentEncoding) ? new GZIPOutputStream(buffer) : buffer) {
+            objectMapper.writeValue(out, response);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public JsonNode decode() throws IOException {
+        InputStream in = new ByteArrayInputStream(encoded);
+        try (InputStream body = "gzip".equals(contentEncoding) ? new GZIPInputStream(in) : in) {
+            return objectMapper.readTree(body);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.microservicios.tasks.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.google.api.services.tasks.model.Task;
+import com.microservicios.tasks.dto.TaskDto;
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.service.TaskMapper;
+
+/**
+ * Datos sintéticos con la forma de lo que devuelve Google: mezcla de fechas RFC 3339, solo fecha,
+ * vacías y alguna malformada, estados variados y notas de longitud realista.
+ */
+final class SyntheticTasks {
+
+    private static final String NOTES = "Revisar el documento compartido y dejar comentarios antes de la reunión del viernes.";
+
+    private SyntheticTasks() {
+    }
+
+    static List<Task> googleTasks(int count) {
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task()
+                    .setId("task-" + i)
+                    .setTitle("Tarea número " + i)
+                    .setStatus(random.nextInt(4) == 0 ? "completed" : "needsAction")
+                    .setDue(dueDate(random))
+                    .setNotes(random.nextBoolean() ? NOTES : null)
+                    .setUpdated("2024-03-0" + (1 + random.nextInt(9)) + "T10:15:30.000Z"));
+        }
+        return tasks;
+    }
+
+    static List<String> dueDates(int count) {
+        Random random = new Random(7);
+        List<String> dueDates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dueDates.add(dueDate(random));
+        }
+        return dueDates;
+    }
+
+    static List<String> statuses(int count) {
+        Random random = new Random(11);
+        List<String> statuses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            statuses.add(random.nextInt(4) == 0 ? "completed" : "needsAction");
+        }
+        return statuses;
+    }
+
+    static List<TaskListDto> taskLists(int taskCount, int tasksPerList) {
+        TaskMapper mapper = new TaskMapper();
+        List<Task> tasks = googleTasks(taskCount);
+        List<TaskListDto> taskLists = new ArrayList<>();
+        for (int start = 0; start < tasks.size(); start += tasksPerList) {
+            List<TaskDto> taskDtos = new ArrayList<>();
+            for (Task task : tasks.subList(start, Math.min(tasks.size(), start + tasksPerList))) {
+                taskDtos.add(mapper.toTaskDto(task));
+            }
+            taskLists.add(TaskListDto.builder()
+                    .id("list-" + taskLists.size())
+                    .title("Lista " + taskLists.size())
+                    .tasks(taskDtos)
+                    .build());
+        }
+        return taskLists;
+    }
+
+    private static String dueDate(Random random) {
+        int day = 1 + random.nextInt(28);
+        String dd = day < 10 ? "0" + day : String.valueOf(day);
+        int kind = random.nextInt(100);
+        if (kind < 70) {
+            return "2024-05-" + dd + "T00:00:00.000Z";
+        }
+        if (kind < 85) {
+            return null;
+        }
+        if (kind < 99) {
+            return "2024-05-" + dd;
+        }
+        return "05/" + dd + "/2024";
+    }
+}
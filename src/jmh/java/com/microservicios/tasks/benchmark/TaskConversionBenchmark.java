@@ -0,0 +1,87 @@
+package com.microservicios.tasks.benchmark;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.api.services.tasks.model.Task;
+import com.microservicios.tasks.enums.TaskStatus;
+import com.microservicios.tasks.service.LegacyTaskConversion;
+import com.microservicios.tasks.service.TaskMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskConversionBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int taskCount;
+
+    private TaskMapper mapper;
+    private List<Task> tasks;
+    private List<String> dueDates;
+    private List<String> statuses;
+    private ZoneId zone;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.quiet();
+        mapper = new TaskMapper();
+        tasks = SyntheticTasks.googleTasks(taskCount);
+        dueDates = SyntheticTasks.dueDates(taskCount);
+        statuses = SyntheticTasks.statuses(taskCount);
+        zone = ZoneId.systemDefault();
+    }
+
+    @Benchmark
+    public void convertToTaskDto(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(mapper.toTaskDto(task));
+        }
+    }
+
+    @Benchmark
+    public void parseDueDate(Blackhole blackhole) {
+        for (String dueDate : dueDates) {
+            blackhole.consume(mapper.parseDueDate("task", dueDate));
+        }
+    }
+
+    @Benchmark
+    public void taskStatusFromValue(Blackhole blackhole) {
+        for (String status : statuses) {
+            blackhole.consume(TaskStatus.fromValue(status));
+        }
+    }
+
+    // Líneas base con la conversión original basada en excepciones, para comparar en el mismo informe
+
+    @Benchmark
+    public void legacyParseDueDate(Blackhole blackhole) {
+        for (String dueDate : dueDates) {
+            blackhole.consume(LegacyTaskConversion.parseDueDate(dueDate, zone));
+        }
+    }
+
+    @Benchmark
+    public void legacyTaskStatusFromValue(Blackhole blackhole) {
+        for (String status : statuses) {
+            blackhole.consume(LegacyTaskConversion.statusFromValue(status));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.microservicios.tasks.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.services.tasks.model.Task;
+import com.microservicios.tasks.TasksApplication;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * GET /api/tasks de punta a punta (controlador, servicio, cliente de Google y serialización)
+ * contra la API de Google simulada en memoria, sin red.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TasksEndpointBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int taskCount;
+
+    @Param({"100"})
+    private int tasksPerList;
+
+    // Coste de la validación de tokens (tokeninfo cacheado) sobre la petición completa
+    @Param({"true", "false"})
+    private boolean tokenValidation;
+
+    // Vista completa, proyección de campos y resumen (ambas trasladadas al parámetro fields de Google)
+    @Param({"", "fields=id,title,status", "view=summary"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        FakeGoogleTasksTransport google = new FakeGoogleTasksTransport();
+        String listId = null;
+        List<Task> tasks = SyntheticTasks.googleTasks(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            if (i % tasksPerList == 0) {
+                listId = google.addTaskList("Lista " + i / tasksPerList);
+            }
+            google.addTask(listId, tasks.get(i));
+        }
+
+        // Como argumentos de línea de comandos, para que prevalezcan sobre application.properties
+        context = new SpringApplicationBuilder(TasksApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+                        .registerBean("fakeGoogleTasksTransport", HttpTransport.class, () -> google,
+                                definition -> definition.setPrimary(true)))
+                .run(
+                        "--server.port=0",
+                        "--eureka.client.enabled=false",
+                        "--tasks.cache.enabled=false",
+                        "--tasks.coalescing.enabled=false",
+                        "--tasks.rate-limit.enabled=false",
+                        "--google.auth.token-validation.enabled=" + tokenValidation,
+                        "--logging.level.root=ERROR",
+                        "--logging.level.com.microservicios.tasks=ERROR");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        try {
+            System.out.printf("# Tamaño de la respuesta (%s): %d bytes%n", query, getTasks().length);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] getTasks() throws Exception {
+        // El controlador devuelve un CompletableFuture (ya completado en el modo bloqueante)
+        MvcResult result = mockMvc.perform(get("/api/tasks?" + query).header("Authorization", "Bearer benchmark-token"))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+    }
+}
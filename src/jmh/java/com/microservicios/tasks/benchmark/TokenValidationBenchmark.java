@@ -0,0 +1,70 @@
+package com.microservicios.tasks.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.microservicios.tasks.config.ResilienceConfig;
+import com.microservicios.tasks.service.GoogleCallExecutor;
+import com.microservicios.tasks.service.RequestCoalescer;
+import com.microservicios.tasks.service.TokenValidator;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coste por petición de la validación de tokens: token ya cacheado frente a token nuevo
+ * (que consulta tokeninfo en la API simulada en memoria, sin red).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenValidationBenchmark {
+
+    private TokenValidator tokenValidator;
+    private long nextToken;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.quiet();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResilienceConfig resilience = new ResilienceConfig();
+        GoogleCallExecutor googleCalls = new GoogleCallExecutor(
+                resilience.googleRetryRegistry(3, Duration.ofMillis(100), 2.0, Duration.ofSeconds(2), Duration.ofSeconds(5)),
+                resilience.googleCircuitBreakerRegistry(50, 20, 10, Duration.ofSeconds(30), Duration.ofSeconds(10)),
+                resilience.googleBulkheadRegistry(1000, Duration.ZERO),
+                meterRegistry);
+        tokenValidator = new TokenValidator(googleCalls,
+                new RequestCoalescer(meterRegistry, true, Duration.ofSeconds(10)),
+                meterRegistry,
+                new FakeGoogleTasksTransport(),
+                true,
+                "https://oauth2.googleapis.com/tokeninfo",
+                new String[]{"https://www.googleapis.com/auth/tasks"},
+                1_000,
+                Duration.ofMinutes(5),
+                Duration.ofSeconds(30));
+        tokenValidator.validate("benchmark-token");
+    }
+
+    @Benchmark
+    public TokenValidator.ValidatedToken cachedToken() {
+        return tokenValidator.validate("benchmark-token");
+    }
+
+    @Benchmark
+    public TokenValidator.ValidatedToken newToken() {
+        return tokenValidator.validate("benchmark-token-" + nextToken++);
+    }
+}
@@ -0,0 +1,36 @@
+package com.microservicios.tasks.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Formatos binarios para clientes móviles: con {@code Accept: application/cbor} o
+ * {@code application/x-jackson-smile} las respuestas se codifican en CBOR o Smile en lugar de JSON.
+ * <p>
+ * Spring MVC ya registra estos conversores cuando los formatos están en el classpath, pero con un
+ * {@code ObjectMapper} propio; estos parten del builder de Spring Boot para aplicar también
+ * {@code spring.jackson.*} (nulos omitidos, fechas como texto), y así los tres formatos llevan los mismos datos.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        // Los valores cortos repetidos (estados, fechas, mensajes) se codifican como referencias al primero
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+}
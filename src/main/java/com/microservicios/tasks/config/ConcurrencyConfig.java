@@ -0,0 +1,89 @@
+package com.microservicios.tasks.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class ConcurrencyConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService taskListFetchExecutor(
+            @Value("${google.tasks.fetch.max-concurrency:32}") int maxConcurrency) {
+        log.info("Configurando pool de consultas a Google Tasks con {} hilos", maxConcurrency);
+
+        // El tamaño del pool es el límite global de llamadas simultáneas a Google; las demás esperan en la cola
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxConcurrency, maxConcurrency,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                namedDaemonThreads("tasks-fetch-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService taskPagePrefetchExecutor(
+            @Value("${google.tasks.pagination.prefetch-concurrency:16}") int prefetchConcurrency) {
+        // Pool aparte: si compartiera el de listas, una lista esperando su siguiente página podría bloquearlo
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                prefetchConcurrency, prefetchConcurrency,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                namedDaemonThreads("tasks-prefetch-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService taskEventsPollScheduler(
+            @Value("${tasks.events.poller-threads:4}") int pollerThreads) {
+        // Un sondeo por usuario con eventos abiertos, sea cual sea el número de clientes conectados
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                pollerThreads, namedDaemonThreads("tasks-events-poll-"));
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService taskEventsSendExecutor(
+            @Value("${tasks.events.sender-threads:8}") int senderThreads) {
+        // Pool aparte para escribir a los clientes: uno lento no retrasa los sondeos ni a los demás
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                senderThreads, senderThreads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                namedDaemonThreads("tasks-events-send-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService taskCompletionFlushScheduler() {
+        // Un solo hilo: los envíos del modo write-behind nunca se solapan entre sí
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                1, namedDaemonThreads("tasks-completion-flush-"));
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
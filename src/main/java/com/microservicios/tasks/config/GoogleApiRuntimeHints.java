@@ -0,0 +1,72 @@
+package com.microservicios.tasks.config;
+
+import java.util.stream.Stream;
+
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonErrorContainer;
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+import com.google.api.client.googleapis.services.json.AbstractGoogleJsonClientRequest;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.util.GenericData;
+import com.google.api.services.tasks.Tasks;
+import com.google.api.services.tasks.TasksRequest;
+import com.google.api.services.tasks.model.Task;
+import com.google.api.services.tasks.model.TaskList;
+import com.google.api.services.tasks.model.TaskLists;
+import com.microservicios.tasks.dto.ApiResponse;
+import com.microservicios.tasks.dto.ErrorResponse;
+import com.microservicios.tasks.dto.TaskChangesDto;
+import com.microservicios.tasks.dto.TaskCompletionResultDto;
+import com.microservicios.tasks.dto.TaskListChangesDto;
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.dto.TaskPageDto;
+import com.microservicios.tasks.dto.TasksResponse;
+import com.microservicios.tasks.service.TokenValidator;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Metadatos para la imagen nativa (perfil {@code native}). El cliente de Google lee y escribe por
+ * reflexión los campos {@code @Key} de los modelos, de las respuestas de error y de las propias
+ * peticiones (sus parámetros de consulta), y carga su versión de ficheros .properties.
+ */
+public class GoogleApiRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final MemberCategory[] JSON_MEMBERS = {
+            MemberCategory.DECLARED_FIELDS,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_PUBLIC_METHODS
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        Stream.of(GenericData.class, GenericJson.class,
+                        Task.class, Task.Links.class, TaskList.class, TaskLists.class,
+                        com.google.api.services.tasks.model.Tasks.class,
+                        GoogleJsonError.class, GoogleJsonError.ErrorInfo.class, GoogleJsonError.Details.class,
+                        GoogleJsonError.ParameterViolations.class, GoogleJsonErrorContainer.class,
+                        AbstractGoogleClientRequest.class, AbstractGoogleJsonClientRequest.class, TasksRequest.class,
+                        TokenValidator.TokenInfoResponse.class)
+                .forEach(type -> hints.reflection().registerType(type, JSON_MEMBERS));
+        registerRequestTypes(hints, Tasks.class);
+
+        hints.resources()
+                .registerPattern("com/google/api/client/googleapis/google-api-client.properties")
+                .registerPattern("com/google/api/client/http/google-http-client.properties");
+
+        // Los controladores ya los registra Spring AOT; los eventos SSE se serializan fuera de ellos
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ApiResponse.class, ErrorResponse.class, TasksResponse.class, TaskListDto.class, TaskPageDto.class,
+                TaskChangesDto.class, TaskListChangesDto.class, TaskCompletionResultDto.class);
+    }
+
+    // Tasks.Tasklists.List, Tasks.TasksOperations.Patch... están anidadas en el cliente generado
+    private static void registerRequestTypes(RuntimeHints hints, Class<?> type) {
+        for (Class<?> nested : type.getDeclaredClasses()) {
+            hints.reflection().registerType(nested, JSON_MEMBERS);
+            registerRequestTypes(hints, nested);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.microservicios.tasks.config;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@Slf4j
+@Configuration
+@ImportRuntimeHints(GoogleApiRuntimeHints.class)
+public class GoogleHttpTransportConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager googleConnectionManager(
+            @Value("${google.http.pool.max-total:100}") int maxTotal,
+            @Value("${google.http.pool.max-per-route:50}") int maxPerRoute,
+            @Value("${google.http.pool.validate-after-inactivity-ms:2000}") int validateAfterInactivityMs) {
+        log.info("Configurando pool HTTP hacia Google: max-total={}, max-per-route={}", maxTotal, maxPerRoute);
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(-1, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivityMs);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient googleHttpClient(
+            PoolingHttpClientConnectionManager googleConnectionManager,
+            @Value("${google.http.pool.idle-eviction-ms:30000}") long idleEvictionMs,
+            @Value("${google.http.pool.acquire-timeout-ms:5000}") int acquireTimeoutMs,
+            @Value("${google.http.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${google.http.read-timeout-ms:20000}") int readTimeoutMs) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(acquireTimeoutMs)
+                .setConnectTimeout(connectTimeoutMs)
+                .setSocketTimeout(readTimeoutMs)
+                .build();
+
+        // Mismo ajuste que ApacheHttpTransport.newDefaultHttpClientBuilder(), pero con pool propio y desalojo de inactivas
+        return HttpClientBuilder.create()
+                .useSystemProperties()
+                .setConnectionManager(googleConnectionManager)
+                .setConnectionManagerShared(false)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictionMs, TimeUnit.MILLISECONDS)
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public HttpTransport googleHttpTransport(CloseableHttpClient googleHttpClient) {
+        return new ApacheHttpTransport(googleHttpClient);
+    }
+
+    @Bean
+    public MeterBinder googleConnectionPoolMetrics(PoolingHttpClientConnectionManager googleConnectionManager) {
+        return registry -> {
+            Gauge.builder("google.http.pool.leased", googleConnectionManager,
+                            manager -> manager.getTotalStats().getLeased())
+                    .description("Conexiones hacia Google en uso")
+                    .register(registry);
+            Gauge.builder("google.http.pool.available", googleConnectionManager,
+                            manager -> manager.getTotalStats().getAvailable())
+                    .description("Conexiones hacia Google inactivas y reutilizables")
+                    .register(registry);
+            Gauge.builder("google.http.pool.pending", googleConnectionManager,
+                            manager -> manager.getTotalStats().getPending())
+                    .description("Peticiones esperando una conexión del pool")
+                    .register(registry);
+            Gauge.builder("google.http.pool.max", googleConnectionManager,
+                            manager -> manager.getTotalStats().getMax())
+                    .description("Tamaño máximo del pool de conexiones")
+                    .register(registry);
+        };
+    }
+}
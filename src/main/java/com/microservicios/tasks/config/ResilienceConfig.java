@@ -0,0 +1,88 @@
+package com.microservicios.tasks.config;
+
+import java.time.Duration;
+
+import com.microservicios.tasks.service.GoogleCallExecutor;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public RetryRegistry googleRetryRegistry(
+            @Value("${google.resilience.retry.max-attempts:3}") int maxAttempts,
+            @Value("${google.resilience.retry.initial-interval:200ms}") Duration initialInterval,
+            @Value("${google.resilience.retry.multiplier:2.0}") double multiplier,
+            @Value("${google.resilience.retry.max-interval:5s}") Duration maxInterval,
+            @Value("${google.resilience.retry.max-retry-after:10s}") Duration maxRetryAfter) {
+        IntervalFunction backoff = IntervalFunction.ofExponentialRandomBackoff(initialInterval, multiplier, 0.5, maxInterval);
+
+        RetryConfig config = RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                // Si Google indica Retry-After se respeta; si no, backoff exponencial con jitter
+                .intervalBiFunction((IntervalBiFunction<Object>) (attempt, outcome) -> {
+                    Long retryAfterMillis = outcome.isLeft() ? GoogleCallExecutor.retryAfterMillis(outcome.getLeft()) : null;
+                    return retryAfterMillis != null ? retryAfterMillis : backoff.apply(attempt);
+                })
+                .retryOnException(throwable -> GoogleCallExecutor.isRetryable(throwable, maxRetryAfter))
+                .build();
+        return RetryRegistry.of(config);
+    }
+
+    @Bean
+    public CircuitBreakerRegistry googleCircuitBreakerRegistry(
+            @Value("${google.resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${google.resilience.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${google.resilience.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+            @Value("${google.resilience.circuit-breaker.wait-duration-in-open-state:30s}") Duration waitDurationInOpenState,
+            @Value("${google.resilience.circuit-breaker.slow-call-duration-threshold:10s}") Duration slowCallDurationThreshold) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(100)
+                .slowCallDurationThreshold(slowCallDurationThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordException(GoogleCallExecutor::isUpstreamFailure)
+                .build();
+        return CircuitBreakerRegistry.of(config);
+    }
+
+    @Bean
+    public BulkheadRegistry googleBulkheadRegistry(
+            @Value("${google.resilience.bulkhead.max-concurrent-calls:50}") int maxConcurrentCalls,
+            @Value("${google.resilience.bulkhead.max-wait:500ms}") Duration maxWait) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build();
+        return BulkheadRegistry.of(config);
+    }
+
+    @Bean
+    public MeterBinder googleResilienceMetrics(RetryRegistry googleRetryRegistry,
+                                               CircuitBreakerRegistry googleCircuitBreakerRegistry,
+                                               BulkheadRegistry googleBulkheadRegistry) {
+        return registry -> {
+            TaggedRetryMetrics.ofRetryRegistry(googleRetryRegistry).bindTo(registry);
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(googleCircuitBreakerRegistry).bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(googleBulkheadRegistry).bindTo(registry);
+        };
+    }
+}
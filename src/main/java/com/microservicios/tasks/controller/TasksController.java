@@ -1,17 +1,42 @@
 package com.microservicios.tasks.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservicios.tasks.dto.ApiResponse;
+import com.microservicios.tasks.dto.BatchCompletionRequest;
+import com.microservicios.tasks.dto.TaskCompletionResultDto;
+import com.microservicios.tasks.dto.TaskChangesDto;
+import com.microservicios.tasks.dto.TaskFilter;
+import com.microservicios.tasks.dto.TaskPageDto;
+import com.microservicios.tasks.dto.TaskQuery;
 import com.microservicios.tasks.dto.TasksResponse;
 import com.microservicios.tasks.exception.InvalidTokenException;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.service.RequestRateLimiter;
+import com.microservicios.tasks.service.TaskCompletionQueue;
+import com.microservicios.tasks.service.TaskEventPublisher;
+import com.microservicios.tasks.service.TasksResponseCache;
 import com.microservicios.tasks.service.TasksService;
+import com.microservicios.tasks.service.TokenValidator;
 
 @Slf4j
 @RestController
@@ -19,33 +44,193 @@ import com.microservicios.tasks.service.TasksService;
 @RequiredArgsConstructor
 public class TasksController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final TasksService tasksService;
+    private final TasksResponseCache responseCache;
+    private final TokenValidator tokenValidator;
+    private final RequestRateLimiter rateLimiter;
+    private final TaskEventPublisher eventPublisher;
+    private final TaskCompletionQueue completionQueue;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<TasksResponse>> getTaskLists(
-            @RequestHeader("Authorization") String authHeader) {
+    public CompletableFuture<ResponseEntity<ApiResponse<TasksResponse>>> getTaskLists(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) Integer maxTasksPerList,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String dueMin,
+            @RequestParam(required = false) String dueMax,
+            @RequestParam(required = false) String completedMin,
+            @RequestParam(required = false) String completedMax,
+            @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
 
         log.info("Received request to fetch task lists");
         String accessToken = extractAccessToken(authHeader);
+        TaskQuery query = TaskQuery.parse(fields, view,
+                TaskFilter.parse(status, dueMin, dueMax, completedMin, completedMax), sort);
 
-        List<TaskListDto> taskLists = tasksService.listTasks(accessToken);
-        TasksResponse response = TasksResponse.from(taskLists);
+        // En modo asíncrono (tasks.async.enabled) el hilo de la petición queda libre mientras se consulta a Google
+        return responseCache.get(accessToken, maxTasksPerList, query, () -> {
+            // Solo se cobra lo que va a Google: las respuestas desde la caché (y sus 304) no gastan cupo
+            rateLimiter.acquire(accessToken, rateLimiter.taskListsCost(accessToken));
+            return tasksService.listTasksAsync(accessToken, maxTasksPerList, query).thenApply(taskLists -> {
+                rateLimiter.recordTaskLists(accessToken, taskLists.size());
+                return toTasksResponse(taskLists, query);
+            });
+        }).thenApply(cached -> {
+            // Si el cliente ya tiene esta versión se responde 304 sin serializar nada (If-None-Match compara en débil)
+            if (cached.etag() != null && webRequest.checkNotModified(cached.etag())) {
+                return null;
+            }
+
+            // El ETag identifica los datos; Vary evita que la caché del cliente mezcle JSON, CBOR y Smile
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(cached.etag())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(ApiResponse.success("Listas de tareas obtenidas exitosamente", cached.response()));
+        });
+    }
+
+    @GetMapping(value = {"", "/stream"}, produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTaskLists(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) Integer maxTasksPerList,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String dueMin,
+            @RequestParam(required = false) String dueMax,
+            @RequestParam(required = false) String completedMin,
+            @RequestParam(required = false) String completedMax,
+            @RequestParam(required = false) String sort) {
+
+        log.info("Received request to stream task lists");
+        String accessToken = extractAccessToken(authHeader);
+        TaskQuery query = TaskQuery.parse(fields, view,
+                TaskFilter.parse(status, dueMin, dueMax, completedMin, completedMax), sort);
+        rateLimiter.acquire(accessToken, rateLimiter.taskListsCost(accessToken));
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                AtomicInteger totalTasks = new AtomicInteger();
+                try {
+                    int taskListCount = tasksService.streamTasks(accessToken, maxTasksPerList, query, taskList -> {
+                        totalTasks.addAndGet(taskList.getTaskCount() != null ? taskList.getTaskCount()
+                                : taskList.getTasks() != null ? taskList.getTasks().size() : 0);
+                        writeNdjsonLine(generator, "taskList", taskList);
+                    });
+                    rateLimiter.recordTaskLists(accessToken, taskListCount);
+                    writeNdjsonLine(generator, "summary", TasksResponse.summary(taskListCount, totalTasks.get()));
+                } catch (UncheckedIOException e) {
+                    // El cliente cerró la conexión; no hay a quién informar
+                    log.debug("Streaming of task lists aborted: {}", e.getMessage());
+                } catch (RuntimeException e) {
+                    // El estado HTTP ya se envió, así que el error viaja como última línea
+                    log.error("Error while streaming task lists: {}", e.getMessage(), e);
+                    writeNdjsonLine(generator, "error", ApiResponse.builder()
+                            .success(false)
+                            .message("Error al obtener las listas de tareas")
+                            .build());
+                }
+            }
+        };
+
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
 
-        return ResponseEntity.ok(ApiResponse.success("Listas de tareas obtenidas exitosamente", response));
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToChanges(@RequestHeader("Authorization") String authHeader) {
+
+        log.info("Received subscription to task change events");
+        String accessToken = extractAccessToken(authHeader);
+        // La conexión solo se cobra al abrirse; los sondeos posteriores se cobran al usuario según se hacen
+        rateLimiter.acquire(accessToken, 1);
+
+        return eventPublisher.subscribe(accessToken);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<TaskChangesDto>> getChanges(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) Instant since) {
+
+        log.info("Received request to fetch task changes since {}", since);
+        String accessToken = extractAccessToken(authHeader);
+        rateLimiter.acquire(accessToken, rateLimiter.taskListsCost(accessToken));
+
+        TaskChangesDto changes = tasksService.listChanges(accessToken, since);
+        rateLimiter.recordTaskLists(accessToken, changes.getTaskLists().size());
+
+        return ResponseEntity.ok(ApiResponse.success("Cambios de tareas obtenidos exitosamente", changes));
+    }
+
+    @GetMapping("/{taskListId}/tasks")
+    public ResponseEntity<ApiResponse<TaskPageDto>> getTaskPage(
+            @PathVariable String taskListId,
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer maxResults,
+            @RequestParam(required = false) String fields) {
+
+        log.info("Received request to fetch a page of tasks from list {}", taskListId);
+        String accessToken = extractAccessToken(authHeader);
+        rateLimiter.acquire(accessToken, 1);
+
+        TaskPageDto page = tasksService.listTaskPage(accessToken, taskListId, pageToken, maxResults,
+                TaskQuery.parse(fields, null));
+
+        return ResponseEntity.ok(ApiResponse.success("Página de tareas obtenida exitosamente", page));
     }
 
     @PostMapping("/{taskListId}/tasks/{taskId}/complete")
-    public ResponseEntity<ApiResponse<Void>> markTaskComplete(
+    public CompletableFuture<ResponseEntity<ApiResponse<Void>>> markTaskComplete(
             @PathVariable String taskListId,
             @PathVariable String taskId,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestParam(required = false) Instant completed) {
 
         log.info("Received request to mark task {} as completed in list {}", taskId, taskListId);
         String accessToken = extractAccessToken(authHeader);
+        rateLimiter.acquire(accessToken, 1);
 
-        tasksService.markTaskComplete(taskListId, taskId, accessToken);
+        // Un If-Match exige comprobar la versión en Google antes de responder: no admite write-behind
+        if (completionQueue.isEnabled() && (ifMatch == null || ifMatch.isBlank())
+                && completionQueue.enqueue(accessToken, taskListId, taskId, completed)) {
+            responseCache.invalidate(accessToken);
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().body(ApiResponse.success(
+                    "Tarea aceptada; se marcará como completada en Google en segundo plano", null)));
+        }
+        return tasksService.markTaskCompleteAsync(taskListId, taskId, accessToken, ifMatch, completed)
+                .thenApply(ignored -> {
+                    responseCache.invalidate(accessToken);
+                    return ResponseEntity.ok(ApiResponse.success("Tarea marcada como completada exitosamente", null));
+                });
+    }
 
-        return ResponseEntity.ok(ApiResponse.success("Tarea marcada como completada exitosamente", null));
+    @PostMapping("/complete")
+    public ResponseEntity<ApiResponse<List<TaskCompletionResultDto>>> markTasksComplete(
+            @Valid @RequestBody BatchCompletionRequest request,
+            @RequestHeader("Authorization") String authHeader) {
+
+        log.info("Received request to mark {} tasks as completed", request.getTasks().size());
+        String accessToken = extractAccessToken(authHeader);
+        // Google cuenta cada petición de un batch por separado contra la cuota
+        rateLimiter.acquire(accessToken, request.getTasks().size());
+
+        List<TaskCompletionResultDto> results = tasksService.markTasksComplete(request.getTasks(), accessToken);
+        if (results.stream().anyMatch(TaskCompletionResultDto::isSuccess)) {
+            responseCache.invalidate(accessToken);
+        }
+
+        long completed = results.stream().filter(TaskCompletionResultDto::isSuccess).count();
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("Se completaron %d de %d tareas", completed, results.size()), results));
     }
 
     @GetMapping("/info")
@@ -54,22 +239,56 @@ public class TasksController {
                 .version("1.0.0")
                 .description("Microservicio para Google Tasks API")
                 .endpoints(new String[]{
-                        "GET /api/tasks - Listar todas las listas de tareas",
-                        "POST /api/tasks/{taskListId}/tasks/{taskId}/complete - Marcar tarea como completada",
+                        "GET /api/tasks?maxTasksPerList={n}&fields={id,title,status,dueDate,notes}&view={full|summary} - Listar todas las listas de tareas",
+                        "GET /api/tasks?status={needsAction|completed}&dueMin=&dueMax=&completedMin=&completedMax={fecha o instante}&sort={position|dueDate|title, - descendente} - Filtrar y ordenar las tareas",
+                        "GET /api/tasks/stream (o Accept: application/x-ndjson) - Listas de tareas en streaming NDJSON",
+                        "GET /api/tasks/changes?since={cursor} - Cambios desde la última sincronización",
+                        "GET /api/tasks/events - Cambios en tiempo real (Server-Sent Events: ready, changes, resync, error)",
+                        "GET /api/tasks/{taskListId}/tasks?pageToken={token}&maxResults={n}&fields={campos} - Paginar las tareas de una lista",
+                        "POST /api/tasks/{taskListId}/tasks/{taskId}/complete?completed={instante} - Marcar tarea como completada (admite If-Match; 202 en modo write-behind)",
+                        "POST /api/tasks/complete - Marcar varias tareas como completadas ({\"tasks\": [{\"taskListId\", \"taskId\"}]})",
                         "GET /api/tasks/info - Información del servicio"
                 })
-                .usage("Los endpoints requieren el header 'Authorization: Bearer {google_access_token}'")
+                .usage("Los endpoints requieren el header 'Authorization: Bearer {google_access_token}'. "
+                        + "Responden en JSON, o en CBOR/Smile con 'Accept: application/cbor' o 'Accept: application/x-jackson-smile'")
                 .note("Microservicio para lectura y modificación de Google Tasks")
                 .build();
 
         return ResponseEntity.ok(ApiResponse.success(info));
     }
 
+    // Las respuestas proyectadas o resumidas son para clientes ligeros: se omite la nota descriptiva
+    private static TasksResponse toTasksResponse(List<TaskListDto> taskLists, TaskQuery query) {
+        TasksResponse response = TasksResponse.from(taskLists);
+        if (!query.isFull()) {
+            response.setNote(null);
+        }
+        return response;
+    }
+
+    private static void writeNdjsonLine(JsonGenerator generator, String type, Object data) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeObjectField("data", data);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private String extractAccessToken(String authHeader) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             throw new InvalidTokenException("El header de autorización está ausente o es inválido");
         }
-        return authHeader.substring(7);
+        String accessToken = authHeader.substring(7);
+        // Un token caducado o revocado se rechaza aquí, antes de construir clientes o llamar a Google
+        tokenValidator.validate(accessToken);
+        // Los completados pendientes de este usuario se envían con el token más reciente que haya traído
+        completionQueue.offerToken(accessToken);
+        return accessToken;
     }
 
     @lombok.Data
@@ -0,0 +1,23 @@
+package com.microservicios.tasks.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCompletionRequest {
+    @NotEmpty(message = "Debe indicarse al menos una tarea")
+    @Size(max = 1000, message = "No se pueden completar más de 1000 tareas por petición")
+    @Builder.Default
+    private List<@Valid TaskCompletionRequest> tasks = new ArrayList<>();
+}
@@ -17,6 +17,9 @@ public class ErrorResponse {
     private String error;
     private int status;
 
+    // Segundos que el cliente debería esperar antes de reintentar (429/503)
+    private Long retryAfterSeconds;
+
     @Builder.Default
     private LocalDateTime timestamp = LocalDateTime.now();
 
@@ -0,0 +1,24 @@
+package com.microservicios.tasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangesDto {
+    // Se envía como "since" en la siguiente llamada
+    private String cursor;
+
+    @Builder.Default
+    private List<TaskListChangesDto> taskLists = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> removedTaskListIds = new ArrayList<>();
+}
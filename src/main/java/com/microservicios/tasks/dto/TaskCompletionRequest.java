@@ -0,0 +1,24 @@
+package com.microservicios.tasks.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCompletionRequest {
+    @NotBlank(message = "El ID de la lista es requerido")
+    private String taskListId;
+
+    @NotBlank(message = "El ID de la tarea es requerido")
+    private String taskId;
+
+    // Hora real en que se completó (p. ej. sin conexión); si falta, Google usa la actual
+    private Instant completed;
+}
@@ -0,0 +1,38 @@
+package com.microservicios.tasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCompletionResultDto {
+    private String taskListId;
+    private String taskId;
+    private boolean success;
+
+    // Código HTTP devuelto por Google para esta tarea, solo si falló
+    private Integer status;
+    private String error;
+
+    public static TaskCompletionResultDto completed(TaskCompletionRequest request) {
+        return TaskCompletionResultDto.builder()
+                .taskListId(request.getTaskListId())
+                .taskId(request.getTaskId())
+                .success(true)
+                .build();
+    }
+
+    public static TaskCompletionResultDto failed(TaskCompletionRequest request, Integer status, String error) {
+        return TaskCompletionResultDto.builder()
+                .taskListId(request.getTaskListId())
+                .taskId(request.getTaskId())
+                .success(false)
+                .status(status)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.microservicios.tasks.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import com.microservicios.tasks.enums.TaskStatus;
+import com.microservicios.tasks.exception.InvalidQueryException;
+
+/**
+ * Filtros de las consultas de listas: estado y rangos (inclusivos) de vencimiento y de completado.
+ * Se trasladan a los parámetros {@code showCompleted}, {@code dueMin}/{@code dueMax} y
+ * {@code completedMin}/{@code completedMax} de Google; lo que Google no filtra se comprueba al recorrer las tareas.
+ */
+public record TaskFilter(TaskStatus status,
+                         Instant dueMin,
+                         Instant dueMax,
+                         Instant completedMin,
+                         Instant completedMax) {
+
+    private static final TaskFilter NONE = new TaskFilter(null, null, null, null, null);
+
+    public static TaskFilter none() {
+        return NONE;
+    }
+
+    /**
+     * Las fechas admiten un instante RFC 3339 o un día ({@code 2024-05-06}); un día como límite
+     * inferior empieza a las 00:00 UTC y como límite superior incluye el día entero (Google guarda
+     * los vencimientos a las 00:00 UTC).
+     *
+     * @throws InvalidQueryException si algún valor no es válido o un rango está invertido
+     */
+    public static TaskFilter parse(String status, String dueMin, String dueMax,
+                                   String completedMin, String completedMax) {
+        TaskStatus taskStatus;
+        try {
+            taskStatus = status == null || status.isBlank() ? null : TaskStatus.fromValue(status.trim());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryException("Valor inválido en 'status': " + status, e);
+        }
+        TaskFilter filter = new TaskFilter(taskStatus,
+                lowerBound("dueMin", dueMin), upperBound("dueMax", dueMax),
+                lowerBound("completedMin", completedMin), upperBound("completedMax", completedMax));
+        checkRange("due", filter.dueMin, filter.dueMax);
+        checkRange("completed", filter.completedMin, filter.completedMax);
+        return filter.isEmpty() ? NONE : filter;
+    }
+
+    public boolean isEmpty() {
+        return status == null && dueMin == null && dueMax == null && completedMin == null && completedMax == null;
+    }
+
+    // Solo las tareas completadas tienen fecha de completado
+    public boolean onlyCompleted() {
+        return status == TaskStatus.COMPLETED || completedMin != null || completedMax != null;
+    }
+
+    private static Instant lowerBound(String name, String value) {
+        LocalDate date = parseDate(name, value);
+        return date != null ? date.atStartOfDay(ZoneOffset.UTC).toInstant() : parseInstant(name, value);
+    }
+
+    private static Instant upperBound(String name, String value) {
+        LocalDate date = parseDate(name, value);
+        return date != null ? date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().minusMillis(1)
+                : parseInstant(name, value);
+    }
+
+    private static LocalDate parseDate(String name, String value) {
+        if (value == null || value.isBlank() || value.trim().length() != 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new InvalidQueryException("Fecha inválida en '" + name + "': " + value, e);
+        }
+    }
+
+    private static Instant parseInstant(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new InvalidQueryException("Fecha inválida en '" + name + "': " + value, e);
+        }
+    }
+
+    private static void checkRange(String name, Instant min, Instant max) {
+        if (min != null && max != null && min.isAfter(max)) {
+            throw new InvalidQueryException("El rango de '" + name + "' está invertido: " + min + " > " + max);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.microservicios.tasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskListChangesDto {
+    private String id;
+
+    private String title;
+
+    // true si el cursor era demasiado antiguo y "upserted" trae la lista completa
+    private boolean full;
+
+    @Builder.Default
+    private List<TaskDto> upserted = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> removedTaskIds = new ArrayList<>();
+
+    private String error;
+}
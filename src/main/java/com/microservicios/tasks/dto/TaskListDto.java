@@ -23,4 +23,15 @@ public class TaskListDto {
     @NotNull(message = "La lista de tareas no puede ser nula")
     @Builder.Default
     private List<TaskDto> tasks = new ArrayList<>();
+
+    // Solo en view=summary, donde no se devuelven las tareas
+    private Integer taskCount;
+    private Integer completedCount;
+
+    // Presente si la lista se cortó por el límite de tareas; permite seguir en /{taskListId}/tasks.
+    // Con sort no se informa: el token de Google sigue su orden manual, no el pedido
+    private String nextPageToken;
+
+    // Solo se informa cuando la lista no pudo obtenerse (modo de fallo PARTIAL)
+    private String error;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.microservicios.tasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageDto {
+    private String taskListId;
+
+    @Builder.Default
+    private List<TaskDto> tasks = new ArrayList<>();
+
+    private String nextPageToken;
+}
@@ -0,0 +1,110 @@
+package com.microservicios.tasks.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.microservicios.tasks.enums.TaskField;
+import com.microservicios.tasks.enums.TaskSort;
+import com.microservicios.tasks.enums.TaskView;
+import com.microservicios.tasks.exception.InvalidQueryException;
+
+/**
+ * Qué se devuelve de cada tarea en las consultas de listas: una proyección de campos
+ * ({@code fields=id,title,status}) o solo los recuentos por lista ({@code view=summary}),
+ * qué tareas ({@link TaskFilter}) y en qué orden ({@link TaskSort}).
+ * Se traslada al parámetro {@code fields} de Google para no descargar lo que no se va a devolver.
+ */
+public record TaskQuery(Set<TaskField> fields, TaskView view, TaskFilter filter, TaskSort sort) {
+
+    private static final TaskQuery FULL = new TaskQuery(EnumSet.allOf(TaskField.class), TaskView.FULL,
+            TaskFilter.none(), TaskSort.POSITION);
+
+    public TaskQuery {
+        fields = Collections.unmodifiableSet(fields.isEmpty() ? EnumSet.noneOf(TaskField.class) : EnumSet.copyOf(fields));
+        filter = filter != null ? filter : TaskFilter.none();
+        sort = sort != null ? sort : TaskSort.POSITION;
+    }
+
+    public static TaskQuery full() {
+        return FULL;
+    }
+
+    /**
+     * @param fields campos separados por comas, o null para todos
+     * @param view   {@code full} (por defecto) o {@code summary}
+     * @throws InvalidQueryException si algún campo o la vista no existen
+     */
+    public static TaskQuery parse(String fields, String view) {
+        return parse(fields, view, TaskFilter.none(), null);
+    }
+
+    /**
+     * @param sort {@code position} (por defecto, el orden de Google), {@code dueDate}, {@code title},
+     *             o cualquiera de ellos precedido de {@code -} para orden descendente
+     * @throws InvalidQueryException si algún campo, la vista o el orden no existen
+     */
+    public static TaskQuery parse(String fields, String view, TaskFilter filter, String sort) {
+        TaskView taskView;
+        TaskSort taskSort;
+        Set<TaskField> taskFields = EnumSet.noneOf(TaskField.class);
+        try {
+            taskView = view == null || view.isBlank() ? TaskView.FULL : TaskView.fromValue(view.trim());
+            taskSort = sort == null || sort.isBlank() ? TaskSort.POSITION : TaskSort.fromValue(sort.trim());
+            if (fields != null) {
+                for (String field : fields.split(",")) {
+                    if (!field.isBlank()) {
+                        taskFields.add(TaskField.fromValue(field.trim()));
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryException("Valor inválido en 'fields', 'view' o 'sort': " + e.getMessage(), e);
+        }
+        if (taskFields.isEmpty() || taskView == TaskView.SUMMARY) {
+            taskFields = EnumSet.allOf(TaskField.class);
+        }
+        // Los recuentos no dependen del orden
+        if (taskView == TaskView.SUMMARY) {
+            taskSort = TaskSort.POSITION;
+        }
+        TaskQuery query = new TaskQuery(taskFields, taskView, filter, taskSort);
+        return query.isFull() ? FULL : query;
+    }
+
+    // La consulta por defecto: todas las tareas, con todos sus campos, en el orden de Google
+    public boolean isFull() {
+        return view == TaskView.FULL && fields.size() == TaskField.values().length
+                && filter.isEmpty() && sort == TaskSort.POSITION;
+    }
+
+    public boolean isSummary() {
+        return view == TaskView.SUMMARY;
+    }
+
+    public boolean includes(TaskField field) {
+        return fields.contains(field);
+    }
+
+    public boolean isSorted() {
+        return sort != TaskSort.POSITION;
+    }
+
+    /**
+     * Partial response de Google para {@code tasks.list}: solo los campos que se van a devolver
+     * (o solo el estado, para los recuentos del resumen), más los que hacen falta para filtrar y ordenar.
+     */
+    public String googleListFields() {
+        Set<TaskField> googleFields = isSummary() ? EnumSet.of(TaskField.STATUS) : EnumSet.copyOf(fields);
+        if (filter.status() != null) {
+            googleFields.add(TaskField.STATUS);
+        }
+        if (isSorted()) {
+            googleFields.add(sort.getField());
+        }
+        return "nextPageToken,items(" + googleFields.stream()
+                .map(TaskField::getGoogleName)
+                .collect(Collectors.joining(",")) + ")";
+    }
+}
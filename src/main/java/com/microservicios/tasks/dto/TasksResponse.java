@@ -19,14 +19,26 @@ public class TasksResponse {
 
     public static TasksResponse from(List<TaskListDto> taskLists) {
         int totalTasks = taskLists.stream()
-                .mapToInt(taskList -> taskList.getTasks() != null ? taskList.getTasks().size() : 0)
+                .mapToInt(TasksResponse::countTasks)
                 .sum();
 
+        TasksResponse response = summary(taskLists.size(), totalTasks);
+        response.setTaskLists(taskLists);
+        return response;
+    }
+
+    private static int countTasks(TaskListDto taskList) {
+        if (taskList.getTaskCount() != null) {
+            return taskList.getTaskCount();
+        }
+        return taskList.getTasks() != null ? taskList.getTasks().size() : 0;
+    }
+
+    public static TasksResponse summary(int taskListCount, int totalTasks) {
         return TasksResponse.builder()
-                .taskLists(taskLists)
-                .taskListCount(taskLists.size())
+                .taskListCount(taskListCount)
                 .totalTasks(totalTasks)
-                .note(String.format("Mostrando %d listas con %d tareas en total", taskLists.size(), totalTasks))
+                .note(String.format("Mostrando %d listas con %d tareas en total", taskListCount, totalTasks))
                 .build();
     }
 }
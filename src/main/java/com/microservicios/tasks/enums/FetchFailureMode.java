@@ -0,0 +1,8 @@
+package com.microservicios.tasks.enums;
+
+public enum FetchFailureMode {
+    // Si falla cualquier lista, falla toda la petición
+    FAIL_FAST,
+    // Devuelve las listas obtenidas y marca con error las que fallaron
+    PARTIAL
+}
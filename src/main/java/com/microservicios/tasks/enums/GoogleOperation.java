@@ -0,0 +1,19 @@
+package com.microservicios.tasks.enums;
+
+public enum GoogleOperation {
+    LIST_TASK_LISTS("tasklists.list"),
+    LIST_TASKS("tasks.list"),
+    PATCH_TASK("tasks.patch"),
+    BATCH("batch"),
+    TOKEN_INFO("oauth2.tokeninfo");
+
+    private final String value;
+
+    GoogleOperation(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,38 @@
+package com.microservicios.tasks.enums;
+
+/**
+ * Campos de {@code TaskDto} que se pueden pedir con {@code fields=} y su nombre en la API de Google,
+ * para trasladar la proyección a su parámetro {@code fields}.
+ */
+public enum TaskField {
+    ID("id", "id"),
+    TITLE("title", "title"),
+    STATUS("status", "status"),
+    DUE_DATE("dueDate", "due"),
+    NOTES("notes", "notes");
+
+    private final String value;
+    private final String googleName;
+
+    TaskField(String value, String googleName) {
+        this.value = value;
+        this.googleName = googleName;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getGoogleName() {
+        return googleName;
+    }
+
+    public static TaskField fromValue(String value) {
+        for (TaskField field : values()) {
+            if (field.value.equalsIgnoreCase(value)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task field: " + value);
+    }
+}
@@ -0,0 +1,44 @@
+package com.microservicios.tasks.enums;
+
+/**
+ * Orden de las tareas de cada lista con {@code sort=}. Google solo devuelve su orden manual
+ * ({@code position}); el resto se ordena en el servicio, por lo que necesita el campo de Google indicado.
+ */
+public enum TaskSort {
+    POSITION("position", null, false),
+    DUE_DATE("dueDate", TaskField.DUE_DATE, false),
+    DUE_DATE_DESC("-dueDate", TaskField.DUE_DATE, true),
+    TITLE("title", TaskField.TITLE, false),
+    TITLE_DESC("-title", TaskField.TITLE, true);
+
+    private final String value;
+    private final TaskField field;
+    private final boolean descending;
+
+    TaskSort(String value, TaskField field, boolean descending) {
+        this.value = value;
+        this.field = field;
+        this.descending = descending;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public TaskField getField() {
+        return field;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public static TaskSort fromValue(String value) {
+        for (TaskSort sort : values()) {
+            if (sort.value.equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task sort: " + value);
+    }
+}
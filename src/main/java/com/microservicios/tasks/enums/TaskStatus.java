@@ -1,11 +1,20 @@
 package com.microservicios.tasks.enums;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import com.fasterxml.jackson.annotation.JsonValue;
 
 public enum TaskStatus {
     NEEDS_ACTION("needsAction"),
     COMPLETED("completed");
 
+    private static final TaskStatus[] VALUES = values();
+    private static final Map<String, TaskStatus> BY_VALUE = Arrays.stream(VALUES)
+            .collect(Collectors.toUnmodifiableMap(status -> status.value, Function.identity()));
+
     private final String value;
 
     TaskStatus(String value) {
@@ -18,7 +27,12 @@ public enum TaskStatus {
     }
 
     public static TaskStatus fromValue(String value) {
-        for (TaskStatus status : TaskStatus.values()) {
+        // Google siempre envía el valor exacto; solo las variantes de mayúsculas recorren los valores
+        TaskStatus exact = value != null ? BY_VALUE.get(value) : null;
+        if (exact != null) {
+            return exact;
+        }
+        for (TaskStatus status : VALUES) {
             if (status.value.equalsIgnoreCase(value)) {
                 return status;
             }
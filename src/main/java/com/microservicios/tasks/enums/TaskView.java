@@ -0,0 +1,27 @@
+package com.microservicios.tasks.enums;
+
+public enum TaskView {
+    // Listas con sus tareas
+    FULL("full"),
+    // Solo los recuentos de cada lista, sin tareas
+    SUMMARY("summary");
+
+    private final String value;
+
+    TaskView(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static TaskView fromValue(String value) {
+        for (TaskView view : values()) {
+            if (view.value.equalsIgnoreCase(value)) {
+                return view;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task view: " + value);
+    }
+}
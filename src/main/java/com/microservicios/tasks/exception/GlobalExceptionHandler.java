@@ -2,12 +2,14 @@ package com.microservicios.tasks.exception;
 
 import com.microservicios.tasks.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -27,6 +29,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(TaskConflictException.class)
+    public ResponseEntity<ErrorResponse> handleTaskConflictException(TaskConflictException ex) {
+        log.error("Conflicto al modificar la tarea: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of(
+                ex.getMessage(),
+                "TASK_CONFLICT",
+                HttpStatus.PRECONDITION_FAILED.value()
+        );
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
     @ExceptionHandler(GoogleApiException.class)
     public ResponseEntity<ErrorResponse> handleGoogleApiException(GoogleApiException ex) {
         log.error("Error en Google API: {}", ex.getMessage(), ex);
@@ -38,6 +51,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitExceededException ex) {
+        log.warn("Límite de peticiones excedido: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of(
+                ex.getMessage(),
+                "RATE_LIMIT_EXCEEDED",
+                HttpStatus.TOO_MANY_REQUESTS.value()
+        );
+        error.setRetryAfterSeconds(ex.getRetryAfterSeconds());
+        return withRetryAfter(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS), ex.getRetryAfterSeconds())
+                .body(error);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        log.warn("Servicio no disponible: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of(
+                ex.getMessage(),
+                "SERVICE_UNAVAILABLE",
+                HttpStatus.SERVICE_UNAVAILABLE.value()
+        );
+        error.setRetryAfterSeconds(ex.getRetryAfterSeconds());
+        return withRetryAfter(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE), ex.getRetryAfterSeconds())
+                .body(error);
+    }
+
     @ExceptionHandler(InvalidTokenException.class)
     public ResponseEntity<ErrorResponse> handleInvalidTokenException(InvalidTokenException ex) {
         log.error("Token inválido: {}", ex.getMessage());
@@ -67,6 +106,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidQueryException(InvalidQueryException ex) {
+        log.error("Consulta inválida: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of(
+                ex.getMessage(),
+                "VALIDATION_ERROR",
+                HttpStatus.BAD_REQUEST.value()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        log.error("Parámetro inválido '{}': {}", ex.getName(), ex.getValue());
+        ErrorResponse error = ErrorResponse.of(
+                "Valor inválido para el parámetro '" + ex.getName() + "'",
+                "VALIDATION_ERROR",
+                HttpStatus.BAD_REQUEST.value()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         log.error("Error inesperado: {}", ex.getMessage(), ex);
@@ -77,4 +138,11 @@ public class GlobalExceptionHandler {
         );
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+
+    private static ResponseEntity.BodyBuilder withRetryAfter(ResponseEntity.BodyBuilder builder, Long retryAfterSeconds) {
+        if (retryAfterSeconds != null) {
+            builder.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return builder;
+    }
 }
@@ -0,0 +1,19 @@
+package com.microservicios.tasks.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    private final Long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, Long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ServiceUnavailableException(String message, Long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,11 @@
+package com.microservicios.tasks.exception;
+
+public class TaskConflictException extends RuntimeException {
+    public TaskConflictException(String taskId) {
+        super("La tarea " + taskId + " fue modificada por otro cliente");
+    }
+
+    public TaskConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,38 +1,82 @@
 package com.microservicios.tasks.factory;
 
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.tasks.Tasks;
-import com.google.auth.http.HttpCredentialsAdapter;
-import com.google.auth.oauth2.AccessToken;
-import com.google.auth.oauth2.GoogleCredentials;
-import com.microservicios.tasks.exception.GoogleApiException;
+import com.google.api.services.tasks.TasksRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Un único cliente de Google Tasks para todo el servicio. El token no forma parte del cliente: cada
+ * petición lo lleva como cabecera propia ({@link #authorize}), de modo que el cliente se puede usar desde
+ * cualquier hilo (pools de consulta y de prefetch incluidos) y para cualquier usuario.
+ */
 @Slf4j
 @Component
 public class GoogleTasksClientFactory {
 
     private static final String APPLICATION_NAME = "MobyApp Tasks Microservice";
 
-    public Tasks createClient(String accessToken) {
-        try {
-            log.debug("Creating Google Tasks client with provided access token");
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private final Tasks client;
 
-            AccessToken token = new AccessToken(accessToken, null);
-            GoogleCredentials credentials = GoogleCredentials.create(token);
+    public GoogleTasksClientFactory(HttpTransport googleHttpTransport,
+                                    @Value("${google.http.connect-timeout-ms:5000}") int connectTimeoutMs,
+                                    @Value("${google.http.read-timeout-ms:20000}") int readTimeoutMs,
+                                    // Vacío = https://tasks.googleapis.com/; otra URL dirige la API (y sus batch) a un servidor falso o a un proxy
+                                    @Value("${google.tasks.root-url:}") String rootUrl) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
 
-            return new Tasks.Builder(
-                    new NetHttpTransport(),
-                    GsonFactory.getDefaultInstance(),
-                    new HttpCredentialsAdapter(credentials))
-                    .setApplicationName(APPLICATION_NAME)
-                    .build();
-
-        } catch (Exception e) {
-            log.error("Failed to create Google Tasks client: {}", e.getMessage(), e);
-            throw new GoogleApiException("Failed to create Google Tasks client", e);
+        Tasks.Builder builder = new Tasks.Builder(
+                googleHttpTransport,
+                GsonFactory.getDefaultInstance(),
+                this::applyTimeouts)
+                .setApplicationName(APPLICATION_NAME);
+        if (!rootUrl.isBlank()) {
+            builder.setRootUrl(rootUrl.endsWith("/") ? rootUrl : rootUrl + "/");
         }
+        this.client = builder.build();
+        log.debug("Cliente compartido de Google Tasks creado para {}", client.getRootUrl());
+    }
+
+    /**
+     * Cliente compartido: las peticiones que se construyan con él hay que pasarlas por {@link #authorize}.
+     */
+    public Tasks client() {
+        return client;
+    }
+
+    /**
+     * Añade el token de acceso a una petición del cliente compartido; se envía tal cual en cada reintento.
+     */
+    public <R extends TasksRequest<?>> R authorize(R request, String accessToken) {
+        request.getRequestHeaders().setAuthorization(bearer(accessToken));
+        return request;
+    }
+
+    /**
+     * Petición batch con el token del usuario en la petición externa; cada parte debe ir además autorizada.
+     */
+    public BatchRequest batch(String accessToken) {
+        String authorization = bearer(accessToken);
+        return client.batch(request -> {
+            applyTimeouts(request);
+            request.getHeaders().setAuthorization(authorization);
+        });
+    }
+
+    private void applyTimeouts(HttpRequest request) {
+        request.setConnectTimeout(connectTimeoutMs);
+        request.setReadTimeout(readTimeoutMs);
+    }
+
+    private static String bearer(String accessToken) {
+        return "Bearer " + accessToken;
     }
 }
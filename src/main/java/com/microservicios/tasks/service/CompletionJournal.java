@@ -0,0 +1,250 @@
+package com.microservicios.tasks.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Diario en disco de los completados aceptados y aún no enviados a Google (modo write-behind).
+ * Es un fichero de solo añadir con un registro por línea, {@code <crc32> <json>}: {@code complete}
+ * al aceptar un completado y {@code ack} cuando ya no hay que enviarlo.
+ * <p>
+ * {@link #append} no vuelve hasta que el registro está en disco; los fsync se agrupan, de modo que las
+ * escrituras concurrentes comparten uno. Al abrir el diario se recuperan los completados sin {@code ack},
+ * se descarta una última línea a medio escribir (el proceso murió escribiendo) y se compacta el fichero.
+ * Los {@code ack} no se sincronizan: si se pierden, el completado se reenvía, y completar es idempotente.
+ * <p>
+ * El diario no guarda tokens de acceso, solo la clave del usuario: para enviar lo pendiente hace falta un
+ * token que el usuario aporte en memoria (ver {@link TaskCompletionQueue}). Aun así, el fichero solo es
+ * legible por su propietario.
+ */
+@Slf4j
+final class CompletionJournal implements Closeable {
+
+    private static final String COMPLETE = "complete";
+    private static final String ACK = "ack";
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Entry> pending = new LinkedHashMap<>();
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+    private long nextId;
+    // Bytes escritos y bytes ya sincronizados con el disco (fsync) desde la apertura; no se reinician al vaciar
+    private long written;
+    private volatile long synced;
+
+    private CompletionJournal(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    static CompletionJournal open(Path file, ObjectMapper objectMapper) throws IOException {
+        CompletionJournal journal = new CompletionJournal(file, objectMapper);
+        journal.recover();
+        return journal;
+    }
+
+    /**
+     * Añade un completado y espera a que esté en disco.
+     */
+    Entry append(String userKey, String taskListId, String taskId, Instant completed) throws IOException {
+        Entry entry;
+        long position;
+        synchronized (this) {
+            entry = new Entry(nextId++, userKey, taskListId, taskId, completed, Instant.now());
+            position = write(Line.complete(entry));
+            pending.put(entry.id(), entry);
+        }
+        sync(position);
+        return entry;
+    }
+
+    synchronized void acknowledge(long id) throws IOException {
+        if (pending.remove(id) == null) {
+            return;
+        }
+        if (pending.isEmpty()) {
+            // Sin nada pendiente el fichero entero sobra: se vacía en lugar de crecer indefinidamente
+            channel.truncate(0);
+            return;
+        }
+        write(Line.ack(id));
+    }
+
+    synchronized List<Entry> pending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    synchronized Set<String> pendingUsers() {
+        Set<String> users = new HashSet<>();
+        for (Entry entry : pending.values()) {
+            users.add(entry.userKey());
+        }
+        return users;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void recover() throws IOException {
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                int lineNumber = 0;
+                String text;
+                while ((text = reader.readLine()) != null) {
+                    lineNumber++;
+                    Line line = parse(text);
+                    if (line == null) {
+                        // Normalmente la última línea, si el proceso murió mientras la escribía
+                        log.warn("Registro incompleto o corrupto en la línea {} del diario {}, se descarta", lineNumber, file);
+                        continue;
+                    }
+                    apply(line);
+                }
+            }
+        }
+        compact();
+        log.info("Diario de completados abierto en {}: {} pendientes", file, pending.size());
+    }
+
+    private void apply(Line line) {
+        if (COMPLETE.equals(line.op())) {
+            Entry entry = line.entry();
+            pending.put(entry.id(), entry);
+            nextId = Math.max(nextId, entry.id() + 1);
+        } else if (ACK.equals(line.op())) {
+            pending.remove(line.id());
+            nextId = Math.max(nextId, line.id() + 1);
+        }
+    }
+
+    // Reescribe el diario solo con los pendientes y lo sustituye de forma atómica
+    private void compact() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path compacted = directory.resolve(file.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Entry entry : pending.values()) {
+                out.write(ByteBuffer.wrap(encode(Line.complete(entry))));
+            }
+            out.force(true);
+        }
+        restrictPermissions(compacted);
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private long write(Line line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(encode(line));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written += buffer.capacity();
+        return written;
+    }
+
+    // Un fsync cubre todo lo escrito hasta ese momento: quien espera detrás de otro fsync puede no necesitar el suyo
+    private void sync(long position) throws IOException {
+        if (synced >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                target = written;
+            }
+            channel.force(false);
+            synced = Math.max(synced, target);
+        }
+    }
+
+    private byte[] encode(Line line) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(line);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        byte[] prefix = String.format("%08x ", crc.getValue()).getBytes(StandardCharsets.US_ASCII);
+        byte[] encoded = new byte[prefix.length + json.length + 1];
+        System.arraycopy(prefix, 0, encoded, 0, prefix.length);
+        System.arraycopy(json, 0, encoded, prefix.length, json.length);
+        encoded[encoded.length - 1] = '\n';
+        return encoded;
+    }
+
+    private Line parse(String text) {
+        int separator = text.indexOf(' ');
+        if (separator != 8) {
+            return null;
+        }
+        byte[] json = text.substring(separator + 1).getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        try {
+            if (Long.parseLong(text.substring(0, separator), 16) != crc.getValue()) {
+                return null;
+            }
+            return objectMapper.readValue(json, Line.class);
+        } catch (NumberFormatException | IOException e) {
+            return null;
+        }
+    }
+
+    private static void restrictPermissions(Path path) {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException | IOException e) {
+            log.debug("No se pudieron restringir los permisos de {}: {}", path, e.getMessage());
+        }
+    }
+
+    record Entry(long id,
+                 String userKey,
+                 String taskListId,
+                 String taskId,
+                 Instant completed,
+                 Instant acceptedAt) {
+    }
+
+    private record Line(String op, long id, Entry entry) {
+
+        static Line complete(Entry entry) {
+            return new Line(COMPLETE, entry.id(), entry);
+        }
+
+        static Line ack(long id) {
+            return new Line(ACK, id, null);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.microservicios.tasks.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.google.api.client.http.HttpResponseException;
+import com.microservicios.tasks.enums.GoogleOperation;
+import com.microservicios.tasks.exception.GoogleApiException;
+import com.microservicios.tasks.exception.RateLimitExceededException;
+import com.microservicios.tasks.exception.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Punto único por el que pasan todas las llamadas a Google: reintentos con backoff (respetando
+ * Retry-After), circuit breaker y un bulkhead de concurrencia por operación. Las llamadas a Google Tasks
+ * comparten un circuit breaker; tokeninfo tiene el suyo, para que su caída no corte también Google Tasks.
+ * <p>
+ * Cada intento HTTP se mide en {@code google.tasks.requests} y la llamada completa (reintentos y esperas
+ * incluidos) en {@code google.tasks.calls}, ambos por operación, resultado y código HTTP.
+ */
+@Slf4j
+@Component
+public class GoogleCallExecutor {
+
+    private static final String CIRCUIT_BREAKER_NAME = "googleTasks";
+    private static final String TOKEN_INFO_CIRCUIT_BREAKER_NAME = "googleTokenInfo";
+    private static final String NO_STATUS = "NONE";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<GoogleOperation, CircuitBreaker> circuitBreakers = new EnumMap<>(GoogleOperation.class);
+    private final Map<GoogleOperation, Retry> retries = new EnumMap<>(GoogleOperation.class);
+    private final Map<GoogleOperation, Bulkhead> bulkheads = new EnumMap<>(GoogleOperation.class);
+
+    public GoogleCallExecutor(RetryRegistry googleRetryRegistry,
+                              CircuitBreakerRegistry googleCircuitBreakerRegistry,
+                              BulkheadRegistry googleBulkheadRegistry,
+                              MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (GoogleOperation operation : GoogleOperation.values()) {
+            circuitBreakers.put(operation, googleCircuitBreakerRegistry.circuitBreaker(
+                    operation == GoogleOperation.TOKEN_INFO ? TOKEN_INFO_CIRCUIT_BREAKER_NAME : CIRCUIT_BREAKER_NAME));
+            retries.put(operation, googleRetryRegistry.retry(operation.getValue()));
+            bulkheads.put(operation, googleBulkheadRegistry.bulkhead(operation.getValue()));
+        }
+    }
+
+    @FunctionalInterface
+    public interface GoogleCall<T> {
+        T execute() throws IOException;
+    }
+
+    public <T> T execute(GoogleOperation operation, GoogleCall<T> call) throws IOException {
+        CheckedSupplier<T> guarded = Bulkhead.decorateCheckedSupplier(bulkheads.get(operation),
+                timed("google.tasks.requests", "Peticiones HTTP individuales a Google Tasks API",
+                        operation, call::execute));
+        CircuitBreaker circuitBreaker = circuitBreakers.get(operation);
+        guarded = CircuitBreaker.decorateCheckedSupplier(circuitBreaker, guarded);
+        guarded = Retry.decorateCheckedSupplier(retries.get(operation), guarded);
+        guarded = timed("google.tasks.calls", "Llamadas a Google Tasks API, reintentos y esperas incluidos",
+                operation, guarded);
+
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException e) {
+            long retryAfter = circuitBreaker.getCircuitBreakerConfig()
+                    .getWaitIntervalFunctionInOpenState().apply(1) / 1000;
+            log.warn("Circuit breaker abierto, se rechaza la llamada {}", operation.getValue());
+            throw new ServiceUnavailableException("Google Tasks API no está disponible temporalmente",
+                    Math.max(1, retryAfter), e);
+        } catch (BulkheadFullException e) {
+            log.warn("Bulkhead lleno para {}, se rechaza la llamada", operation.getValue());
+            throw new ServiceUnavailableException("Demasiadas llamadas simultáneas a Google Tasks API", 1L, e);
+        } catch (HttpResponseException e) {
+            // Agotados los reintentos, los límites y caídas de Google se devuelven con su pista de reintento
+            Long retryAfterMillis = retryAfterMillis(e);
+            Long retryAfterSeconds = retryAfterMillis != null ? Math.max(1, retryAfterMillis / 1000) : null;
+            if (e.getStatusCode() == 429) {
+                throw new RateLimitExceededException("Google Tasks API limitó las peticiones", retryAfterSeconds, e);
+            }
+            if (e.getStatusCode() == 503) {
+                throw new ServiceUnavailableException("Google Tasks API no está disponible temporalmente",
+                        retryAfterSeconds, e);
+            }
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new GoogleApiException("Error inesperado al llamar a Google Tasks API", t);
+        }
+    }
+
+    private <T> CheckedSupplier<T> timed(String name, String description,
+                                         GoogleOperation operation, CheckedSupplier<T> supplier) {
+        return () -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Throwable failure = null;
+            try {
+                return supplier.get();
+            } catch (Throwable t) {
+                failure = t;
+                throw t;
+            } finally {
+                sample.stop(timer(name, description, operation, failure));
+            }
+        };
+    }
+
+    // Solo etiquetas de cardinalidad baja y fija: nunca identificadores de usuario, listas ni tokens
+    private Timer timer(String name, String description, GoogleOperation operation, Throwable failure) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", operation.getValue())
+                .tag("outcome", outcome(failure))
+                .tag("status", status(failure))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "SUCCESS";
+        }
+        if (failure instanceof CallNotPermittedException || failure instanceof BulkheadFullException) {
+            return "REJECTED";
+        }
+        if (failure instanceof HttpResponseException e) {
+            return e.getStatusCode() >= 500 ? "SERVER_ERROR" : "CLIENT_ERROR";
+        }
+        return failure instanceof IOException ? "IO_ERROR" : "UNKNOWN";
+    }
+
+    private static String status(Throwable failure) {
+        if (failure instanceof HttpResponseException e) {
+            return String.valueOf(e.getStatusCode());
+        }
+        // El cliente de Google solo devuelve el cuerpo: sin excepción la respuesta fue 2xx
+        return failure == null ? "2xx" : NO_STATUS;
+    }
+
+    public static boolean isRetryable(Throwable throwable, Duration maxRetryAfter) {
+        if (throwable instanceof HttpResponseException e) {
+            int status = e.getStatusCode();
+            if (status != 429 && status != 500 && status != 502 && status != 503 && status != 504) {
+                return false;
+            }
+            // Si Google pide esperar más de lo razonable se falla ya y se traslada la pista al cliente
+            Long retryAfterMillis = retryAfterMillis(e);
+            return retryAfterMillis == null || retryAfterMillis <= maxRetryAfter.toMillis();
+        }
+        return throwable instanceof IOException;
+    }
+
+    public static boolean isUpstreamFailure(Throwable throwable) {
+        if (throwable instanceof HttpResponseException e) {
+            // Los 4xx (incluido 429, que suele ser cuota de un usuario) no indican que Google esté caído
+            return e.getStatusCode() >= 500;
+        }
+        return throwable instanceof IOException;
+    }
+
+    public static Long retryAfterMillis(Throwable throwable) {
+        if (!(throwable instanceof HttpResponseException e) || e.getHeaders() == null) {
+            return null;
+        }
+        String retryAfter = e.getHeaders().getFirstHeaderStringValue("Retry-After");
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException ignored) {
+            // También puede venir como fecha HTTP
+        }
+        try {
+            Instant until = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(0, Duration.between(Instant.now(), until).toMillis());
+        } catch (DateTimeParseException ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.microservicios.tasks.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import com.microservicios.tasks.exception.GoogleApiException;
+import com.microservicios.tasks.service.GoogleCallExecutor.GoogleCall;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-flight: si ya hay una llamada en curso con la misma clave, las demás esperan su resultado
+ * (como mucho {@code tasks.coalescing.max-wait}) en lugar de repetir las llamadas a Google.
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration maxWait;
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${tasks.coalescing.enabled:true}") boolean enabled,
+                            @Value("${tasks.coalescing.max-wait:10s}") Duration maxWait) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxWait = maxWait;
+    }
+
+    public <T> T execute(String operation, Object key, Supplier<T> loader) {
+        try {
+            return executeIo(operation, key, loader::get);
+        } catch (IOException e) {
+            // El Supplier no declara IOException; no debería llegar aquí
+            throw new GoogleApiException("Error inesperado en la llamada compartida " + operation, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T executeIo(String operation, Object key, GoogleCall<T> loader) throws IOException {
+        if (!enabled) {
+            return loader.execute();
+        }
+
+        FlightKey flightKey = new FlightKey(operation, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, flight);
+
+        if (leader == null) {
+            try {
+                T result = loader.execute();
+                flight.complete(result);
+                return result;
+            } catch (IOException | RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, flight);
+            }
+        }
+
+        counter("tasks.coalescing.coalesced", operation).increment();
+        try {
+            return (T) leader.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // La llamada original tarda demasiado: esta petición sigue por su cuenta
+            counter("tasks.coalescing.timeouts", operation).increment();
+            log.debug("Tiempo de espera agotado para la llamada compartida {}, se ejecuta por separado", operation);
+            return loader.execute();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoogleApiException("Se interrumpió la espera de la llamada compartida " + operation, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new GoogleApiException("Error en la llamada compartida " + operation, cause);
+        }
+    }
+
+    /**
+     * Variante sin bloqueo: quien llega con la llamada ya en curso recibe el mismo resultado como future.
+     * Comparte las llamadas en curso con {@link #executeIo}, así que peticiones síncronas y asíncronas
+     * con la misma clave también se agrupan.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String operation, Object key, Supplier<CompletableFuture<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        FlightKey flightKey = new FlightKey(operation, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, flight);
+
+        if (leader == null) {
+            CompletableFuture<T> loading;
+            try {
+                loading = loader.get();
+            } catch (RuntimeException | Error e) {
+                loading = CompletableFuture.failedFuture(e);
+            }
+            loading.whenComplete((result, error) -> {
+                inFlight.remove(flightKey, flight);
+                if (error != null) {
+                    flight.completeExceptionally(unwrap(error));
+                } else {
+                    flight.complete(result);
+                }
+            });
+            return (CompletableFuture<T>) (CompletableFuture<?>) flight.copy();
+        }
+
+        counter("tasks.coalescing.coalesced", operation).increment();
+        return ((CompletableFuture<T>) (CompletableFuture<?>) leader.copy())
+                .orTimeout(maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    if (!(unwrap(error) instanceof TimeoutException)) {
+                        return CompletableFuture.failedFuture(unwrap(error));
+                    }
+                    // La llamada original tarda demasiado: esta petición sigue por su cuenta
+                    counter("tasks.coalescing.timeouts", operation).increment();
+                    log.debug("Tiempo de espera agotado para la llamada compartida {}, se ejecuta por separado", operation);
+                    return loader.get();
+                });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private record FlightKey(String operation, Object key) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.microservicios.tasks.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservicios.tasks.exception.RateLimitExceededException;
+import com.microservicios.tasks.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Límites de admisión de las peticiones a la API, comprobados antes de llamar a Google:
+ * <ul>
+ *     <li>global: peticiones por segundo que acepta el servicio;</li>
+ *     <li>por usuario: llamadas a Google por segundo que puede provocar cada usuario;</li>
+ *     <li>cuota del proyecto: llamadas a Google por segundo entre todos los usuarios.</li>
+ * </ul>
+ * Cada petición se cobra por las llamadas a Google que va a hacer (1 + número de listas para
+ * obtener todas las tareas, una por tarea en los batch...). Si un límite la rechaza, se devuelven
+ * las fichas ya cobradas por los anteriores y se lanza {@link RateLimitExceededException}.
+ */
+@Slf4j
+@Component
+public class RequestRateLimiter {
+
+    private static final String GLOBAL = "global";
+    private static final String USER = "user";
+    private static final String UPSTREAM = "upstream";
+
+    private final TokenValidator tokenValidator;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double userCallsPerSecond;
+    private final long userBurst;
+    private final int defaultTaskLists;
+    private final TokenBucket globalBucket;
+    private final TokenBucket upstreamBucket;
+    private final Cache<String, TokenBucket> userBuckets;
+    // Número de listas visto en la última consulta de cada usuario, para estimar el coste de la siguiente
+    private final Cache<String, Integer> knownTaskLists;
+
+    public RequestRateLimiter(TokenValidator tokenValidator,
+                              MeterRegistry meterRegistry,
+                              @Value("${tasks.rate-limit.enabled:true}") boolean enabled,
+                              @Value("${tasks.rate-limit.global.requests-per-second:200}") double globalRequestsPerSecond,
+                              @Value("${tasks.rate-limit.global.burst:400}") long globalBurst,
+                              @Value("${tasks.rate-limit.user.calls-per-second:10}") double userCallsPerSecond,
+                              @Value("${tasks.rate-limit.user.burst:100}") long userBurst,
+                              @Value("${tasks.rate-limit.upstream.calls-per-second:100}") double upstreamCallsPerSecond,
+                              @Value("${tasks.rate-limit.upstream.burst:500}") long upstreamBurst,
+                              @Value("${tasks.rate-limit.upstream.default-task-lists:5}") int defaultTaskLists,
+                              @Value("${tasks.rate-limit.max-users:100000}") long maxUsers,
+                              @Value("${tasks.rate-limit.user-idle-ttl:10m}") Duration userIdleTtl) {
+        this.tokenValidator = tokenValidator;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.userCallsPerSecond = userCallsPerSecond;
+        this.userBurst = userBurst;
+        this.defaultTaskLists = defaultTaskLists;
+        this.globalBucket = new TokenBucket(globalRequestsPerSecond, globalBurst);
+        this.upstreamBucket = new TokenBucket(upstreamCallsPerSecond, upstreamBurst);
+        // Un cubo que lleva más de userIdleTtl sin usarse ya estaría lleno: se puede descartar sin perder nada
+        this.userBuckets = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(userIdleTtl)
+                .build();
+        this.knownTaskLists = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(userIdleTtl)
+                .build();
+
+        Gauge.builder("tasks.ratelimit.available", globalBucket, TokenBucket::availablePermits)
+                .description("Fichas disponibles en el límite")
+                .tag("limiter", GLOBAL)
+                .register(meterRegistry);
+        Gauge.builder("tasks.ratelimit.available", upstreamBucket, TokenBucket::availablePermits)
+                .description("Fichas disponibles en el límite")
+                .tag("limiter", UPSTREAM)
+                .register(meterRegistry);
+        Gauge.builder("tasks.ratelimit.users", userBuckets, cache -> cache.estimatedSize())
+                .description("Usuarios con límite activo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Estimación de llamadas a Google de una consulta de todas las listas del usuario.
+     */
+    public int taskListsCost(String accessToken) {
+        Integer taskLists = enabled ? knownTaskLists.getIfPresent(tokenValidator.userKey(accessToken)) : null;
+        return 1 + (taskLists != null ? taskLists : defaultTaskLists);
+    }
+
+    public void recordTaskLists(String accessToken, int taskLists) {
+        if (enabled) {
+            knownTaskLists.put(tokenValidator.userKey(accessToken), taskLists);
+        }
+    }
+
+    /**
+     * @param upstreamCalls llamadas a Google que hará la petición
+     * @throws RateLimitExceededException si algún límite no admite la petición ahora
+     */
+    public void acquire(String accessToken, int upstreamCalls) {
+        if (!enabled) {
+            return;
+        }
+        TokenBucket userBucket = userBuckets.get(tokenValidator.userKey(accessToken),
+                ignored -> new TokenBucket(userCallsPerSecond, userBurst));
+        int calls = Math.max(1, upstreamCalls);
+
+        long wait = globalBucket.tryAcquire(1);
+        if (wait > 0) {
+            reject(GLOBAL, wait, "El servicio está recibiendo demasiadas peticiones");
+        }
+        wait = userBucket.tryAcquire(calls);
+        if (wait > 0) {
+            globalBucket.release(1);
+            reject(USER, wait, "Se ha superado el límite de peticiones del usuario");
+        }
+        wait = upstreamBucket.tryAcquire(calls);
+        if (wait > 0) {
+            globalBucket.release(1);
+            userBucket.release(calls);
+            reject(UPSTREAM, wait, "Se ha agotado temporalmente la cuota de Google Tasks API");
+        }
+
+        counter("tasks.ratelimit.permitted", null).increment();
+    }
+
+    private void reject(String limiter, long waitNanos, String message) {
+        counter("tasks.ratelimit.rejected", limiter).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("Petición rechazada por el límite {}, reintentar en {}s", limiter, retryAfterSeconds);
+        throw new RateLimitExceededException(message, retryAfterSeconds);
+    }
+
+    private Counter counter(String name, String limiter) {
+        Counter.Builder builder = Counter.builder(name);
+        if (limiter != null) {
+            builder.tag("limiter", limiter);
+        }
+        return builder.register(meterRegistry);
+    }
+}
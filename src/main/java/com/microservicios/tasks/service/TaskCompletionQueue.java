@@ -0,0 +1,377 @@
+package com.microservicios.tasks.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservicios.tasks.dto.TaskCompletionRequest;
+import com.microservicios.tasks.dto.TaskCompletionResultDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Modo write-behind de los completados ({@code tasks.write-behind.enabled}): el completado se guarda en el
+ * {@link CompletionJournal diario} y se responde sin esperar a Google. Un único hilo envía lo pendiente cada
+ * {@code tasks.write-behind.flush-interval}, agrupado por usuario en peticiones batch, y reintenta con espera
+ * exponencial mientras Google falla. Lo que quedó sin enviar al parar o caerse el proceso se recupera del
+ * diario al arrancar.
+ * <p>
+ * Los tokens de acceso no se escriben en el diario: el de cada usuario con completados pendientes se guarda
+ * solo en memoria, y se renueva con el de sus siguientes peticiones ({@link #offerToken}). Tras un reinicio, o
+ * si el token caduca, lo pendiente espera a que el usuario vuelva con un token válido (se cuenta en
+ * {@code tasks.write-behind.awaiting-token}) o a que venza {@code tasks.write-behind.max-age}. Si Google
+ * rechaza el token (401) el completado se descarta al momento.
+ */
+@Slf4j
+@Component
+public class TaskCompletionQueue {
+
+    private final TasksService tasksService;
+    private final TokenValidator tokenValidator;
+    private final TasksResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService flushScheduler;
+    private final boolean enabled;
+    private final Path journalPath;
+    private final Duration flushInterval;
+    private final Duration initialRetryInterval;
+    private final Duration maxRetryInterval;
+    private final Duration maxAge;
+    private final Timer appendTimer;
+    // Usuarios cuyo último envío falló y cuándo se vuelve a intentar
+    private final Map<String, Backoff> backoffs = new ConcurrentHashMap<>();
+    // Último token de cada usuario con completados pendientes (nunca en el diario)
+    private final Map<String, UserToken> tokens = new ConcurrentHashMap<>();
+    // Usuarios con completados pendientes y sin token con el que enviarlos
+    private final Set<String> awaitingToken = ConcurrentHashMap.newKeySet();
+    private volatile int awaitingTokenCount;
+
+    private volatile CompletionJournal journal;
+    private ScheduledFuture<?> flushTask;
+
+    public TaskCompletionQueue(TasksService tasksService,
+                               TokenValidator tokenValidator,
+                               TasksResponseCache responseCache,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Qualifier("taskCompletionFlushScheduler") ScheduledExecutorService flushScheduler,
+                               @Value("${tasks.write-behind.enabled:false}") boolean enabled,
+                               @Value("${tasks.write-behind.journal-path:data/completions.journal}") Path journalPath,
+                               @Value("${tasks.write-behind.flush-interval:200ms}") Duration flushInterval,
+                               @Value("${tasks.write-behind.retry.initial-interval:1s}") Duration initialRetryInterval,
+                               @Value("${tasks.write-behind.retry.max-interval:5m}") Duration maxRetryInterval,
+                               @Value("${tasks.write-behind.max-age:24h}") Duration maxAge) {
+        this.tasksService = tasksService;
+        this.tokenValidator = tokenValidator;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.flushScheduler = flushScheduler;
+        this.enabled = enabled;
+        this.journalPath = journalPath;
+        this.flushInterval = flushInterval;
+        this.initialRetryInterval = initialRetryInterval;
+        this.maxRetryInterval = maxRetryInterval.compareTo(initialRetryInterval) < 0
+                ? initialRetryInterval : maxRetryInterval;
+        this.maxAge = maxAge;
+        this.appendTimer = Timer.builder("tasks.write-behind.journal.append")
+                .description("Escritura de un completado en el diario, fsync incluido")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        Gauge.builder("tasks.write-behind.pending", this, TaskCompletionQueue::pendingCount)
+                .description("Completados aceptados pendientes de enviar a Google")
+                .register(meterRegistry);
+        Gauge.builder("tasks.write-behind.awaiting-token", this, TaskCompletionQueue::awaitingTokenCount)
+                .description("Completados pendientes a la espera de que el usuario vuelva con un token válido")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = CompletionJournal.open(journalPath, objectMapper);
+        flushTask = flushScheduler.scheduleWithFixedDelay(this::flushSafely,
+                0, flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deja de enviar y cierra el diario sin vaciarlo: lo pendiente se envía en el próximo arranque.
+     */
+    @PreDestroy
+    void stop() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        flushTask.cancel(false);
+        CompletionJournal closing = journal;
+        journal = null;
+        synchronized (this) {
+            log.info("Cerrando el diario de completados con {} pendientes", closing.pendingCount());
+            closing.close();
+        }
+        backoffs.clear();
+        tokens.clear();
+        awaitingToken.clear();
+        awaitingTokenCount = 0;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Guarda el completado en el diario; cuando vuelve, ya está en disco. Sin hora de completado se usa la
+     * actual, para que Google no registre la del envío.
+     *
+     * @return {@code false} si no se pudo escribir en el diario; la tarea hay que completarla de forma síncrona
+     */
+    public boolean enqueue(String accessToken, String taskListId, String taskId, Instant completed) {
+        CompletionJournal current = journal;
+        if (current == null) {
+            return false;
+        }
+        TokenValidator.ValidatedToken identity = tokenValidator.resolve(accessToken);
+        Instant completedAt = completed != null ? completed : Instant.now();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            current.append(identity.userKey(), taskListId, taskId, completedAt);
+        } catch (IOException e) {
+            log.error("No se pudo escribir el completado de la tarea {} en el diario: {}", taskId, e.getMessage(), e);
+            return false;
+        } finally {
+            sample.stop(appendTimer);
+        }
+        rememberToken(identity, accessToken);
+        completionCounter("accepted").increment();
+        return true;
+    }
+
+    /**
+     * Recoge el token de una petición ya validada si su usuario tiene completados pendientes: así se envían
+     * los que quedaron tras un reinicio o con un token caducado, y los reintentos usan el token más reciente.
+     */
+    public void offerToken(String accessToken) {
+        if (journal == null || (tokens.isEmpty() && awaitingToken.isEmpty())) {
+            return;
+        }
+        TokenValidator.ValidatedToken identity = tokenValidator.resolve(accessToken);
+        if (tokens.containsKey(identity.userKey()) || awaitingToken.contains(identity.userKey())) {
+            rememberToken(identity, accessToken);
+        }
+    }
+
+    private void rememberToken(TokenValidator.ValidatedToken identity, String accessToken) {
+        tokens.put(identity.userKey(), new UserToken(accessToken, identity.expiresAt()));
+        if (awaitingToken.remove(identity.userKey())) {
+            // Sin esperar al backoff: lo que faltaba era el token
+            backoffs.remove(identity.userKey());
+        }
+    }
+
+    int pendingCount() {
+        CompletionJournal current = journal;
+        return current != null ? current.pendingCount() : 0;
+    }
+
+    int awaitingTokenCount() {
+        return awaitingTokenCount;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Error inesperado al enviar los completados pendientes: {}", e.getMessage(), e);
+        }
+    }
+
+    synchronized void flush() throws IOException {
+        CompletionJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        Map<String, List<CompletionJournal.Entry>> byUser = new LinkedHashMap<>();
+        for (CompletionJournal.Entry entry : current.pending()) {
+            byUser.computeIfAbsent(entry.userKey(), ignored -> new ArrayList<>()).add(entry);
+        }
+        Instant now = Instant.now();
+        int awaiting = 0;
+        for (Map.Entry<String, List<CompletionJournal.Entry>> user : byUser.entrySet()) {
+            String userKey = user.getKey();
+            UserToken token = tokens.get(userKey);
+            if (token == null || token.isExpired(now)) {
+                tokens.remove(userKey);
+                if (awaitingToken.add(userKey)) {
+                    log.info("{} completados pendientes esperan a que su usuario vuelva con un token válido",
+                            user.getValue().size());
+                }
+                awaiting += discardExpired(current, user.getValue(), now);
+                continue;
+            }
+            Backoff backoff = backoffs.get(userKey);
+            if (backoff == null || !now.isBefore(backoff.nextAttempt())) {
+                flushUser(current, userKey, token.accessToken(), user.getValue(), now);
+            }
+        }
+        awaitingTokenCount = awaiting;
+
+        // Los tokens solo se guardan mientras su usuario tiene algo pendiente
+        Set<String> pendingUsers = current.pendingUsers();
+        tokens.keySet().retainAll(pendingUsers);
+        awaitingToken.retainAll(pendingUsers);
+    }
+
+    // Descarta lo que superó max-age esperando un token y devuelve cuántos siguen esperando
+    private int discardExpired(CompletionJournal current, List<CompletionJournal.Entry> entries, Instant now)
+            throws IOException {
+        int waiting = 0;
+        for (CompletionJournal.Entry entry : entries) {
+            if (entry.acceptedAt().plus(maxAge).isBefore(now)) {
+                log.warn("El completado de la tarea {} lleva más de {} esperando un token válido: se descarta",
+                        entry.taskId(), maxAge);
+                acknowledge(current, List.of(entry), "expired");
+            } else {
+                waiting++;
+            }
+        }
+        return waiting;
+    }
+
+    private void flushUser(CompletionJournal current, String userKey, String accessToken,
+                           List<CompletionJournal.Entry> entries, Instant now) throws IOException {
+        // La misma tarea completada varias veces (reintentos del cliente) se envía una sola vez
+        Map<TaskKey, List<CompletionJournal.Entry>> byTask = new LinkedHashMap<>();
+        for (CompletionJournal.Entry entry : entries) {
+            byTask.computeIfAbsent(new TaskKey(entry.taskListId(), entry.taskId()), ignored -> new ArrayList<>())
+                    .add(entry);
+        }
+        List<TaskCompletionRequest> requests = byTask.values().stream()
+                .map(group -> TaskCompletionRequest.builder()
+                        .taskListId(group.get(0).taskListId())
+                        .taskId(group.get(0).taskId())
+                        .completed(group.get(0).completed())
+                        .build())
+                .toList();
+        List<TaskCompletionResultDto> results;
+        try {
+            results = tasksService.markTasksComplete(requests, accessToken);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron enviar {} completados del usuario: {}", requests.size(), e.getMessage());
+            retryLater(current, userKey, byTask.values(), now);
+            return;
+        }
+
+        boolean flushed = false;
+        int unauthorized = 0;
+        List<List<CompletionJournal.Entry>> failed = new ArrayList<>();
+        int index = 0;
+        for (List<CompletionJournal.Entry> group : byTask.values()) {
+            TaskCompletionResultDto result = results.get(index++);
+            if (result.isSuccess()) {
+                acknowledge(current, group, "flushed");
+                flushed = true;
+            } else if (Integer.valueOf(401).equals(result.getStatus())) {
+                // Reintentar con el mismo token no cambiará la respuesta, y no se guardan tokens de otro momento
+                acknowledge(current, group, "unauthorized");
+                unauthorized += group.size();
+            } else if (isPermanentFailure(result.getStatus())) {
+                log.warn("Google rechazó el completado de la tarea {} de la lista {} ({}): se descarta",
+                        result.getTaskId(), result.getTaskListId(), result.getStatus());
+                acknowledge(current, group, "rejected");
+            } else {
+                failed.add(group);
+            }
+        }
+        if (unauthorized > 0) {
+            log.warn("Google rechazó el token del usuario (401): se descartan {} completados", unauthorized);
+            tokens.remove(userKey);
+        }
+        if (flushed) {
+            responseCache.invalidateUser(userKey);
+        }
+        if (failed.isEmpty()) {
+            backoffs.remove(userKey);
+        } else {
+            retryLater(current, userKey, failed, now);
+        }
+    }
+
+    private void retryLater(CompletionJournal current, String userKey,
+                            Iterable<List<CompletionJournal.Entry>> groups, Instant now) throws IOException {
+        boolean retrying = false;
+        for (List<CompletionJournal.Entry> group : groups) {
+            if (group.get(0).acceptedAt().plus(maxAge).isBefore(now)) {
+                log.warn("El completado de la tarea {} lleva más de {} sin poder enviarse: se descarta",
+                        group.get(0).taskId(), maxAge);
+                acknowledge(current, group, "expired");
+            } else {
+                completionCounter("retried").increment(group.size());
+                retrying = true;
+            }
+        }
+        if (!retrying) {
+            backoffs.remove(userKey);
+            return;
+        }
+        int attempts = backoffs.containsKey(userKey) ? backoffs.get(userKey).attempts() + 1 : 1;
+        long delayMillis = Math.min(maxRetryInterval.toMillis(),
+                initialRetryInterval.toMillis() << Math.min(attempts - 1, 20));
+        backoffs.put(userKey, new Backoff(attempts, now.plusMillis(delayMillis)));
+    }
+
+    private void acknowledge(CompletionJournal current, List<CompletionJournal.Entry> group, String outcome)
+            throws IOException {
+        for (CompletionJournal.Entry entry : group) {
+            current.acknowledge(entry.id());
+        }
+        completionCounter(outcome).increment(group.size());
+    }
+
+    // Repetir no cambiará la respuesta: la tarea no existe, no hay permiso o la petición es inválida
+    private static boolean isPermanentFailure(Integer status) {
+        return status != null && status >= 400 && status < 500 && status != 408 && status != 429;
+    }
+
+    private Counter completionCounter(String outcome) {
+        return Counter.builder("tasks.write-behind.completions")
+                .description("Completados del modo write-behind, por resultado")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record TaskKey(String taskListId, String taskId) {
+    }
+
+    private record Backoff(int attempts, Instant nextAttempt) {
+    }
+
+    private record UserToken(String accessToken, Instant expiresAt) {
+
+        private boolean isExpired(Instant now) {
+            return expiresAt != null && !expiresAt.isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.microservicios.tasks.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservicios.tasks.dto.TaskChangesDto;
+import com.microservicios.tasks.dto.TaskDto;
+import com.microservicios.tasks.dto.TaskListChangesDto;
+import com.microservicios.tasks.exception.InvalidTokenException;
+import com.microservicios.tasks.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Eventos de cambios de tareas por Server-Sent Events ({@code GET /api/tasks/events}).
+ * <p>
+ * Cada usuario con alguna conexión abierta tiene un único sondeo en segundo plano que sincroniza
+ * incrementalmente sus listas ({@link TasksService#listChanges}) y reparte el mismo evento, serializado
+ * una sola vez, a todas sus conexiones: las llamadas a Google no crecen con el número de pestañas.
+ * El intervalo se adapta: vuelve al mínimo cuando hay cambios y se duplica hasta el máximo cuando no.
+ * <p>
+ * Cada conexión tiene un buffer acotado que vacía un pool de envío aparte. Si un cliente lento lo llena,
+ * se descartan sus eventos pendientes y se le envía {@code resync}, para que pida
+ * {@code GET /api/tasks/changes?since=} con el id del último evento que recibió (el cursor).
+ */
+@Slf4j
+@Component
+public class TaskEventPublisher {
+
+    private static final String READY = "ready";
+    private static final String CHANGES = "changes";
+    private static final String RESYNC = "resync";
+    private static final String ERROR = "error";
+    private static final String HEARTBEAT = "heartbeat";
+
+    private final TasksService tasksService;
+    private final TokenValidator tokenValidator;
+    private final RequestRateLimiter rateLimiter;
+    private final TasksResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService pollScheduler;
+    private final ExecutorService sendExecutor;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration timeout;
+    private final Duration clockSkew;
+    private final int bufferSize;
+    private final Set<DataWithMediaType> heartbeat;
+    private final ConcurrentMap<String, Feed> feeds = new ConcurrentHashMap<>();
+
+    public TaskEventPublisher(TasksService tasksService,
+                              TokenValidator tokenValidator,
+                              RequestRateLimiter rateLimiter,
+                              TasksResponseCache responseCache,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Qualifier("taskEventsPollScheduler") ScheduledExecutorService pollScheduler,
+                              @Qualifier("taskEventsSendExecutor") ExecutorService sendExecutor,
+                              @Value("${tasks.events.poll.min-interval:10s}") Duration minInterval,
+                              @Value("${tasks.events.poll.max-interval:2m}") Duration maxInterval,
+                              @Value("${tasks.events.timeout:30m}") Duration timeout,
+                              @Value("${tasks.events.buffer-size:16}") int bufferSize,
+                              @Value("${google.tasks.sync.clock-skew:5s}") Duration clockSkew) {
+        this.tasksService = tasksService;
+        this.tokenValidator = tokenValidator;
+        this.rateLimiter = rateLimiter;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.pollScheduler = pollScheduler;
+        this.sendExecutor = sendExecutor;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval.compareTo(minInterval) < 0 ? minInterval : maxInterval;
+        this.timeout = timeout;
+        this.clockSkew = clockSkew;
+        this.bufferSize = Math.max(2, bufferSize);
+        this.heartbeat = SseEmitter.event().comment(HEARTBEAT).build();
+
+        Gauge.builder("tasks.events.feeds", feeds, Map::size)
+                .description("Usuarios con un sondeo de cambios activo")
+                .register(meterRegistry);
+        Gauge.builder("tasks.events.subscribers", feeds,
+                        map -> map.values().stream().mapToInt(feed -> feed.subscribers.size()).sum())
+                .description("Conexiones SSE abiertas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre una conexión de eventos para el usuario del token. Si el usuario ya tenía un sondeo activo
+     * la conexión se suma a él (y su token pasa a ser el que se usa, por ser el más reciente).
+     */
+    public SseEmitter subscribe(String accessToken) {
+        String userKey = tokenValidator.userKey(accessToken);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userKey, emitter);
+
+        Feed joined = feeds.compute(userKey, (key, feed) -> {
+            Feed target = feed != null ? feed : new Feed(key);
+            target.accessToken = accessToken;
+            target.subscribers.add(subscriber);
+            if (feed == null) {
+                target.schedule(Duration.ZERO);
+            }
+            return target;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        Instant cursor = joined.cursor;
+        if (cursor != null) {
+            subscriber.ready(cursor);
+        }
+        log.debug("Nueva conexión de eventos; el usuario tiene {} abiertas", joined.subscribers.size());
+        return emitter;
+    }
+
+    private void unsubscribe(String userKey, Subscriber subscriber) {
+        feeds.computeIfPresent(userKey, (key, feed) -> {
+            feed.subscribers.remove(subscriber);
+            if (feed.subscribers.isEmpty()) {
+                // Sin clientes no se vuelve a consultar a Google
+                feed.stop();
+                return null;
+            }
+            return feed;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        feeds.values().forEach(feed -> {
+            feed.stop();
+            feed.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        });
+        feeds.clear();
+    }
+
+    private Set<DataWithMediaType> event(String name, Instant cursor, Object data) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(name);
+        if (cursor != null) {
+            event.id(cursor.toString());
+        }
+        try {
+            // Se serializa una vez por evento, no una vez por conexión
+            return event.data(objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON).build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + name, e);
+        }
+    }
+
+    private Counter pollCounter(String outcome) {
+        return Counter.builder("tasks.events.polls")
+                .description("Sondeos de cambios a Google, por resultado")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sondeo de un usuario. Solo lo ejecuta el hilo del planificador, y nunca dos a la vez
+     * porque cada sondeo programa el siguiente al terminar.
+     */
+    private final class Feed {
+
+        private final String userKey;
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        // Lo ya enviado que la siguiente sincronización puede repetir por el margen de reloj
+        private final Map<String, Sent> recentlySent = new HashMap<>();
+        private volatile String accessToken;
+        private volatile Instant cursor;
+        private volatile boolean stopped;
+        private volatile ScheduledFuture<?> next;
+        private Duration interval = minInterval;
+
+        private Feed(String userKey) {
+            this.userKey = userKey;
+        }
+
+        private void schedule(Duration delay) {
+            if (stopped) {
+                return;
+            }
+            try {
+                next = pollScheduler.schedule(this::poll, delay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("No se programó el sondeo de cambios: el servicio se está deteniendo");
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            ScheduledFuture<?> scheduled = next;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+
+        private void poll() {
+            if (stopped) {
+                return;
+            }
+            String token = accessToken;
+            try {
+                tokenValidator.validate(token);
+                rateLimiter.acquire(token, rateLimiter.taskListsCost(token));
+                Instant previous = cursor;
+                TaskChangesDto changes = tasksService.listChanges(token, previous);
+                rateLimiter.recordTaskLists(token, changes.getTaskLists().size());
+                Instant current = Instant.parse(changes.getCursor());
+                cursor = current;
+
+                // La primera sincronización solo fija el punto de partida (el cliente ya tiene el estado actual),
+                // pero se recuerda para no enviar como cambio lo que la siguiente repita por el margen de reloj
+                TaskChangesDto delta = deduplicate(changes, previous, current);
+                if (previous == null) {
+                    delta = null;
+                }
+                if (delta != null) {
+                    responseCache.invalidate(token);
+                    broadcast(CHANGES, event(CHANGES, current, delta));
+                    interval = minInterval;
+                    pollCounter("changes").increment();
+                } else {
+                    subscribers.forEach(Subscriber::heartbeat);
+                    Duration doubled = interval.multipliedBy(2);
+                    interval = doubled.compareTo(maxInterval) > 0 ? maxInterval : doubled;
+                    pollCounter("unchanged").increment();
+                }
+                subscribers.forEach(subscriber -> subscriber.ready(current));
+
+            } catch (InvalidTokenException e) {
+                // El token más reciente ya no sirve: se cierran las conexiones para que los clientes reconecten con otro
+                log.info("Se cierran los eventos de un usuario con el token inválido: {}", e.getMessage());
+                pollCounter("invalid-token").increment();
+                feeds.remove(userKey, this);
+                stop();
+                broadcast(ERROR, event(ERROR, null, Map.of("message", e.getMessage())));
+                subscribers.forEach(Subscriber::completeAfterPending);
+                return;
+            } catch (RateLimitExceededException e) {
+                pollCounter("rate-limited").increment();
+                Duration retryAfter = Duration.ofSeconds(e.getRetryAfterSeconds() != null ? e.getRetryAfterSeconds() : 1);
+                interval = retryAfter.compareTo(interval) > 0 ? retryAfter : interval;
+            } catch (RuntimeException e) {
+                log.warn("Error al sondear cambios de tareas, se reintentará en {}: {}", maxInterval, e.getMessage());
+                pollCounter("error").increment();
+                interval = maxInterval;
+            }
+            schedule(interval);
+        }
+
+        /**
+         * @return solo lo que no se envió ya, o null si no queda nada
+         */
+        private TaskChangesDto deduplicate(TaskChangesDto changes, Instant previous, Instant current) {
+            // Una sincronización desde "previous" solo repite lo enviado en el margen de reloj anterior
+            if (previous != null) {
+                Instant oldestRepeatable = previous.minus(clockSkew);
+                recentlySent.values().removeIf(sent -> sent.sentAt().isBefore(oldestRepeatable));
+            }
+
+            TaskChangesDto delta = TaskChangesDto.builder().cursor(changes.getCursor()).build();
+            for (TaskListChangesDto taskList : changes.getTaskLists()) {
+                if (taskList.isFull() || taskList.getError() != null) {
+                    // Una lista nueva (o sin copia local) se envía entera
+                    if (taskList.getUpserted() != null) {
+                        taskList.getUpserted().forEach(task -> isNew(taskList.getId() + "/" + task.getId(), task, current));
+                    }
+                    delta.getTaskLists().add(taskList);
+                    continue;
+                }
+                TaskListChangesDto listDelta = TaskListChangesDto.builder()
+                        .id(taskList.getId())
+                        .title(taskList.getTitle())
+                        .build();
+                for (TaskDto task : taskList.getUpserted()) {
+                    if (isNew(taskList.getId() + "/" + task.getId(), task, current)) {
+                        listDelta.getUpserted().add(task);
+                    }
+                }
+                for (String taskId : taskList.getRemovedTaskIds()) {
+                    if (isNew(taskList.getId() + "/" + taskId, null, current)) {
+                        listDelta.getRemovedTaskIds().add(taskId);
+                    }
+                }
+                if (!listDelta.getUpserted().isEmpty() || !listDelta.getRemovedTaskIds().isEmpty()) {
+                    delta.getTaskLists().add(listDelta);
+                }
+            }
+            for (String taskListId : changes.getRemovedTaskListIds()) {
+                if (isNew(taskListId, null, current)) {
+                    delta.getRemovedTaskListIds().add(taskListId);
+                }
+            }
+            return delta.getTaskLists().isEmpty() && delta.getRemovedTaskListIds().isEmpty() ? null : delta;
+        }
+
+        // task == null representa una baja
+        private boolean isNew(String key, TaskDto task, Instant now) {
+            Sent sent = recentlySent.get(key);
+            if (sent != null && Objects.equals(sent.task(), task)) {
+                return false;
+            }
+            recentlySent.put(key, new Sent(task, now));
+            return true;
+        }
+
+        private void broadcast(String name, Set<DataWithMediaType> event) {
+            subscribers.forEach(subscriber -> subscriber.enqueue(name, event));
+        }
+    }
+
+    private record Sent(TaskDto task, Instant sentAt) {
+    }
+
+    private record PendingEvent(String name, Set<DataWithMediaType> data) {
+    }
+
+    /**
+     * Una conexión SSE: los eventos se encolan sin bloquear al sondeo y un único envío en curso
+     * por conexión los escribe en orden.
+     */
+    private final class Subscriber {
+
+        private final String userKey;
+        private final SseEmitter emitter;
+        private final BlockingQueue<PendingEvent> pending = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean readySent = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean completeWhenDrained;
+
+        private Subscriber(String userKey, SseEmitter emitter) {
+            this.userKey = userKey;
+            this.emitter = emitter;
+        }
+
+        private void ready(Instant cursor) {
+            if (readySent.compareAndSet(false, true)) {
+                enqueue(READY, event(READY, cursor, Map.of("cursor", cursor.toString())));
+            }
+        }
+
+        // Si el buffer está lleno el latido sobra: ya hay eventos esperando a este cliente
+        private void heartbeat() {
+            if (!closed.get() && pending.offer(new PendingEvent(HEARTBEAT, heartbeat))) {
+                drain();
+            }
+        }
+
+        private void enqueue(String name, Set<DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!pending.offer(new PendingEvent(name, event))) {
+                // Cliente lento: en lugar de acumular cambios sin límite se le pide que se resincronice
+                pending.clear();
+                pending.offer(new PendingEvent(RESYNC, event(RESYNC, null, Map.of("message",
+                        "Se perdieron eventos; consulta GET /api/tasks/changes?since={último id recibido}"))));
+                Counter.builder("tasks.events.overflows")
+                        .description("Conexiones cuyo buffer se llenó y se pidió resincronizar")
+                        .register(meterRegistry)
+                        .increment();
+            }
+            drain();
+        }
+
+        private void completeAfterPending() {
+            completeWhenDrained = true;
+            drain();
+        }
+
+        private void drain() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    sendExecutor.execute(this::sendPending);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void sendPending() {
+            try {
+                PendingEvent event;
+                while (!closed.get() && (event = pending.poll()) != null) {
+                    emitter.send(event.data());
+                    Counter.builder("tasks.events.sent")
+                            .description("Eventos SSE enviados, por tipo")
+                            .tag("type", event.name())
+                            .register(meterRegistry)
+                            .increment();
+                }
+                if (completeWhenDrained && !closed.get()) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // El cliente se desconectó (o la conexión ya se cerró): se libera sin esperar al timeout
+                log.debug("Conexión de eventos cerrada: {}", e.getMessage());
+                emitter.completeWithError(e);
+                close();
+            } finally {
+                sending.set(false);
+            }
+            if (!pending.isEmpty() && !closed.get()) {
+                drain();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                pending.clear();
+                unsubscribe(userKey, this);
+            }
+        }
+    }
+
+    // Conexiones abiertas del usuario del token (0 si no tiene sondeo activo)
+    int subscriberCount(String accessToken) {
+        Feed feed = feeds.get(tokenValidator.userKey(accessToken));
+        return feed != null ? feed.subscribers.size() : 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.microservicios.tasks.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import com.microservicios.tasks.dto.TaskDto;
+import com.microservicios.tasks.dto.TaskQuery;
+import com.microservicios.tasks.enums.TaskField;
+import com.microservicios.tasks.enums.TaskStatus;
+import com.microservicios.tasks.util.DueDateParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class TaskMapper {
+
+    // La zona se resuelve una sola vez; si es de offset fijo (p. ej. UTC en contenedores) no hace falta consultar sus reglas
+    private final ZoneId zone;
+    private final ZoneOffset fixedOffset;
+
+    public TaskMapper() {
+        this(ZoneId.systemDefault());
+    }
+
+    TaskMapper(ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        this.zone = zone;
+        this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+    }
+
+    public TaskDto toTaskDto(com.google.api.services.tasks.model.Task task) {
+        return toTaskDto(task, TaskQuery.full());
+    }
+
+    // Solo se rellenan los campos pedidos; el resto queda a null y no se serializa
+    public TaskDto toTaskDto(com.google.api.services.tasks.model.Task task, TaskQuery query) {
+        String taskId = task.getId() != null ? task.getId() : "";
+        TaskDto.TaskDtoBuilder dto = TaskDto.builder();
+
+        if (query.includes(TaskField.ID)) {
+            dto.id(taskId);
+        }
+        if (query.includes(TaskField.TITLE)) {
+            dto.title(task.getTitle() != null ? task.getTitle() : "Untitled");
+        }
+        if (query.includes(TaskField.STATUS)) {
+            dto.status(TaskStatus.fromValue(task.getStatus() != null ? task.getStatus() : "needsAction"));
+        }
+        if (query.includes(TaskField.DUE_DATE)) {
+            dto.dueDate(parseDueDate(taskId, task.getDue()));
+        }
+        if (query.includes(TaskField.NOTES)) {
+            dto.notes(task.getNotes() != null ? task.getNotes() : "");
+        }
+        return dto.build();
+    }
+
+    public LocalDateTime parseDueDate(String taskId, String dueDateString) {
+        if (dueDateString == null || dueDateString.trim().isEmpty()) {
+            return null;
+        }
+
+        // Camino rápido para las formas que envía Google; el resto sigue el parseo original de java.time
+        LocalDateTime parsed = DueDateParser.parse(dueDateString, zone, fixedOffset);
+        if (parsed != null) {
+            return parsed;
+        }
+
+        try {
+            // Intentar parsear formato RFC 3339 (ej: "2021-07-09T00:00:00.000Z")
+            Instant instant = Instant.parse(dueDateString);
+            return LocalDateTime.ofInstant(instant, zone);
+        } catch (DateTimeParseException e) {
+            try {
+                // Intentar formato alternativo solo con fecha (ej: "2021-07-09")
+                return LocalDateTime.parse(dueDateString + "T00:00:00",
+                        DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            } catch (DateTimeParseException ex) {
+                log.warn("No se pudo parsear la fecha de vencimiento '{}' para la tarea {}: {}",
+                        dueDateString, taskId, ex.getMessage());
+                return null;
+            }
+        }
+    }
+}
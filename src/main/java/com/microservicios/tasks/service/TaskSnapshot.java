@@ -0,0 +1,123 @@
+package com.microservicios.tasks.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.microservicios.tasks.dto.TaskDto;
+import com.microservicios.tasks.dto.TaskListChangesDto;
+
+/**
+ * Copia local de una lista de tareas de un usuario, con la hora de modificación en Google de cada
+ * tarea y las bajas recientes, para poder responder "qué cambió desde X" sin volver a descargarla.
+ * Guarda también el padre y la posición de cada tarea: los cambios llegan en cualquier orden y la lista
+ * se devuelve en el de Google.
+ */
+class TaskSnapshot {
+
+    // Las posiciones de Google son cadenas de dígitos de longitud fija: se ordenan como texto
+    private static final Comparator<Entry> BY_POSITION =
+            Comparator.comparing(Entry::position, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<String, Entry> tasks = new LinkedHashMap<>();
+    private final Map<String, Instant> removed = new HashMap<>();
+    private Instant syncedAt;
+    // Desde cuándo la copia conoce todos los cambios (antes de esto hay que devolver la lista completa)
+    private Instant completeSince;
+
+    TaskSnapshot(Instant syncedAt) {
+        this.syncedAt = syncedAt;
+        this.completeSince = syncedAt;
+    }
+
+    synchronized void upsert(TaskDto task, String parent, String position, Instant updated) {
+        tasks.put(task.getId(), new Entry(task, parent, position, updated));
+        removed.remove(task.getId());
+    }
+
+    synchronized void remove(String taskId, Instant removedAt) {
+        tasks.remove(taskId);
+        removed.put(taskId, removedAt);
+    }
+
+    synchronized void markSynced(Instant syncedAt, Duration tombstoneRetention) {
+        this.syncedAt = syncedAt;
+        Instant oldestTombstone = syncedAt.minus(tombstoneRetention);
+        if (removed.values().removeIf(removedAt -> removedAt.isBefore(oldestTombstone))
+                && completeSince.isBefore(oldestTombstone)) {
+            completeSince = oldestTombstone;
+        }
+    }
+
+    synchronized Instant getSyncedAt() {
+        return syncedAt;
+    }
+
+    /**
+     * Tareas en el orden de Google: las de primer nivel por posición, cada una seguida de sus subtareas.
+     * Una subtarea cuyo padre no está en la copia se trata como de primer nivel.
+     */
+    synchronized List<TaskDto> tasks() {
+        List<Entry> roots = new ArrayList<>();
+        Map<String, List<Entry>> subtasks = new HashMap<>();
+        for (Entry entry : tasks.values()) {
+            if (entry.parent() != null && tasks.containsKey(entry.parent())) {
+                subtasks.computeIfAbsent(entry.parent(), parent -> new ArrayList<>()).add(entry);
+            } else {
+                roots.add(entry);
+            }
+        }
+
+        List<TaskDto> result = new ArrayList<>(tasks.size());
+        addInOrder(roots, subtasks, result);
+        return result;
+    }
+
+    private static void addInOrder(List<Entry> siblings, Map<String, List<Entry>> subtasks, List<TaskDto> result) {
+        siblings.sort(BY_POSITION);
+        for (Entry entry : siblings) {
+            result.add(entry.task());
+            List<Entry> children = subtasks.get(entry.task().getId());
+            if (children != null) {
+                addInOrder(children, subtasks, result);
+            }
+        }
+    }
+
+    synchronized TaskListChangesDto changesSince(String taskListId, String title, Instant since, Duration clockSkew) {
+        if (since == null || since.isBefore(completeSince)) {
+            return TaskListChangesDto.builder()
+                    .id(taskListId)
+                    .title(title)
+                    .full(true)
+                    .upserted(tasks())
+                    .build();
+        }
+
+        Instant threshold = since.minus(clockSkew);
+        TaskListChangesDto changes = TaskListChangesDto.builder()
+                .id(taskListId)
+                .title(title)
+                .full(false)
+                .build();
+        for (Entry entry : tasks.values()) {
+            if (!entry.updated().isBefore(threshold)) {
+                changes.getUpserted().add(entry.task());
+            }
+        }
+        removed.forEach((taskId, removedAt) -> {
+            if (!removedAt.isBefore(threshold)) {
+                changes.getRemovedTaskIds().add(taskId);
+            }
+        });
+        return changes;
+    }
+
+    private record Entry(TaskDto task, String parent, String position, Instant updated) {
+    }
+}
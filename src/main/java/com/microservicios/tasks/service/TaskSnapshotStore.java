@@ -0,0 +1,100 @@
+package com.microservicios.tasks.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservicios.tasks.dto.TaskListChangesDto;
+import com.microservicios.tasks.dto.TaskListDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TaskSnapshotStore {
+
+    private final Cache<SnapshotKey, TaskSnapshot> snapshots;
+    // Listas borradas por usuario y cuándo se detectó la baja
+    private final Cache<String, Map<String, Instant>> removedTaskLists;
+
+    @Getter
+    private final Duration tombstoneRetention;
+
+    public TaskSnapshotStore(MeterRegistry meterRegistry,
+                             @Value("${google.tasks.sync.max-snapshots:10000}") long maxSnapshots,
+                             @Value("${google.tasks.sync.snapshot-ttl:1h}") Duration snapshotTtl) {
+        this.tombstoneRetention = snapshotTtl;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSnapshots)
+                .expireAfterAccess(snapshotTtl)
+                .recordStats()
+                .build();
+        this.removedTaskLists = Caffeine.newBuilder()
+                .maximumSize(maxSnapshots)
+                .expireAfterAccess(snapshotTtl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "taskSnapshots");
+    }
+
+    TaskSnapshot get(String userKey, String taskListId) {
+        return snapshots.getIfPresent(new SnapshotKey(userKey, taskListId));
+    }
+
+    void put(String userKey, String taskListId, TaskSnapshot snapshot) {
+        snapshots.put(new SnapshotKey(userKey, taskListId), snapshot);
+    }
+
+    TaskListChangesDto changesSince(String userKey, TaskListDto taskList, Instant since, Duration clockSkew) {
+        TaskSnapshot snapshot = get(userKey, taskList.getId());
+        if (snapshot == null) {
+            // La lista no se pudo sincronizar (modo PARTIAL): se informa el error tal cual
+            return TaskListChangesDto.builder()
+                    .id(taskList.getId())
+                    .title(taskList.getTitle())
+                    .full(true)
+                    .upserted(taskList.getTasks())
+                    .error(taskList.getError())
+                    .build();
+        }
+        return snapshot.changesSince(taskList.getId(), taskList.getTitle(), since, clockSkew);
+    }
+
+    void retainTaskLists(String userKey, Set<String> currentTaskListIds, Instant now) {
+        Map<String, Instant> removed = removedTaskLists.get(userKey, ignored -> new ConcurrentHashMap<>());
+        snapshots.asMap().keySet().removeIf(key -> {
+            if (key.userKey().equals(userKey) && !currentTaskListIds.contains(key.taskListId())) {
+                removed.put(key.taskListId(), now);
+                return true;
+            }
+            return false;
+        });
+        removed.keySet().removeAll(currentTaskListIds);
+        removed.values().removeIf(removedAt -> removedAt.isBefore(now.minus(tombstoneRetention)));
+    }
+
+    List<String> removedTaskListsSince(String userKey, Instant since, Duration clockSkew) {
+        List<String> result = new ArrayList<>();
+        Map<String, Instant> removed = removedTaskLists.getIfPresent(userKey);
+        if (since == null || removed == null) {
+            return result;
+        }
+        Instant threshold = since.minus(clockSkew);
+        removed.forEach((taskListId, removedAt) -> {
+            if (!removedAt.isBefore(threshold)) {
+                result.add(taskListId);
+            }
+        });
+        return result;
+    }
+
+    private record SnapshotKey(String userKey, String taskListId) {
+    }
+}
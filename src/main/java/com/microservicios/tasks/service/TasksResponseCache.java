@@ -0,0 +1,121 @@
+package com.microservicios.tasks.service;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservicios.tasks.dto.TaskQuery;
+import com.microservicios.tasks.dto.TasksResponse;
+import com.microservicios.tasks.util.TokenHasher;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class TasksResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final TokenValidator tokenValidator;
+    private final boolean enabled;
+    private final Cache<CacheKey, CachedTasksResponse> cache;
+    private final Timer serializationTimer;
+    private final DistributionSummary payloadSize;
+
+    public TasksResponseCache(ObjectMapper objectMapper,
+                              TokenValidator tokenValidator,
+                              MeterRegistry meterRegistry,
+                              @Value("${tasks.cache.enabled:true}") boolean enabled,
+                              @Value("${tasks.cache.max-size:1000}") long maxSize,
+                              @Value("${tasks.cache.ttl:30s}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.tokenValidator = tokenValidator;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasksResponse");
+        this.serializationTimer = Timer.builder("tasks.response.serialization")
+                .description("Serialización a JSON de la respuesta de GET /api/tasks (para calcular su ETag)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.payloadSize = DistributionSummary.builder("tasks.response.payload")
+                .description("Tamaño en JSON de la respuesta de GET /api/tasks")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Si no está en caché se espera al {@code loader} sin bloquear; las peticiones idénticas simultáneas
+     * ya se agrupan en {@link RequestCoalescer}, así que no hace falta bloquear la entrada mientras se carga.
+     */
+    public CompletableFuture<CachedTasksResponse> get(String accessToken, Integer taskLimit, TaskQuery query,
+                                                      Supplier<CompletableFuture<TasksResponse>> loader) {
+        if (!enabled) {
+            return loader.get().thenApply(this::withEtag);
+        }
+        CacheKey key = new CacheKey(tokenValidator.userKey(accessToken), taskLimit, query);
+        CachedTasksResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return loader.get().thenApply(response -> {
+            CachedTasksResponse loaded = withEtag(response);
+            // Una respuesta con listas fallidas (modo PARTIAL) no debe servirse desde la caché
+            if (!isPartial(response)) {
+                cache.put(key, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    public void invalidate(String accessToken) {
+        invalidateUser(tokenValidator.userKey(accessToken));
+    }
+
+    void invalidateUser(String userKey) {
+        // Se descartan todas las variantes (límite de tareas, proyección) cacheadas para ese usuario
+        cache.asMap().keySet().removeIf(key -> key.userKey().equals(userKey));
+    }
+
+    private static boolean isPartial(TasksResponse response) {
+        return response.getTaskLists() != null
+                && response.getTaskLists().stream().anyMatch(taskList -> taskList.getError() != null);
+    }
+
+    private CachedTasksResponse withEtag(TasksResponse response) {
+        try {
+            long start = System.nanoTime();
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            serializationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            payloadSize.record(json.length);
+
+            // ETag débil: identifica los datos, no los bytes del cuerpo, que los envuelve en un ApiResponse con timestamp
+            byte[] digest = TokenHasher.sha256(json);
+            String etag = "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+            return new CachedTasksResponse(response, etag);
+        } catch (JsonProcessingException e) {
+            log.warn("No se pudo calcular el ETag de la respuesta: {}", e.getMessage());
+            return new CachedTasksResponse(response, null);
+        }
+    }
+
+    private record CacheKey(String userKey, Integer taskLimit, TaskQuery query) {
+    }
+
+    public record CachedTasksResponse(TasksResponse response, String etag) {
+    }
+}
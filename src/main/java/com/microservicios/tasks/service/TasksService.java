@@ -1,56 +1,217 @@
 package com.microservicios.tasks.service;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.microservicios.tasks.enums.FetchFailureMode;
+import com.microservicios.tasks.enums.GoogleOperation;
+import com.microservicios.tasks.enums.TaskField;
+import com.microservicios.tasks.enums.TaskSort;
 import com.microservicios.tasks.enums.TaskStatus;
 import com.microservicios.tasks.exception.GoogleApiException;
+import com.microservicios.tasks.exception.InvalidQueryException;
+import com.microservicios.tasks.exception.TaskConflictException;
 import com.microservicios.tasks.exception.TaskNotFoundException;
 import com.microservicios.tasks.factory.GoogleTasksClientFactory;
+import com.microservicios.tasks.service.GoogleCallExecutor.GoogleCall;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.microservicios.tasks.dto.TaskChangesDto;
+import com.microservicios.tasks.dto.TaskCompletionRequest;
+import com.microservicios.tasks.dto.TaskCompletionResultDto;
 import com.microservicios.tasks.dto.TaskDto;
+import com.microservicios.tasks.dto.TaskFilter;
 import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.dto.TaskPageDto;
+import com.microservicios.tasks.dto.TaskQuery;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TasksService {
 
+    // Tamaño máximo de página que admite Google Tasks
+    private static final int GOOGLE_MAX_PAGE_SIZE = 100;
+
+    // Partial responses de Google: solo se descarga lo que se usa
+    private static final String TASK_LIST_FIELDS = "nextPageToken,items(id,title)";
+    private static final String SYNC_FIELDS = "nextPageToken,items(id,title,status,due,notes,parent,position,updated,deleted,hidden)";
+
     private final GoogleTasksClientFactory clientFactory;
+    private final GoogleCallExecutor googleCalls;
+    private final RequestCoalescer coalescer;
+    private final TaskMapper taskMapper;
+    private final TaskSnapshotStore snapshotStore;
+    private final TokenValidator tokenValidator;
+    private final MeterRegistry meterRegistry;
+
+    @Qualifier("taskListFetchExecutor")
+    private final ExecutorService fetchExecutor;
+
+    @Qualifier("taskPagePrefetchExecutor")
+    private final ExecutorService prefetchExecutor;
 
-    @Value("${google.tasks.max-results:50}")
+    @Value("${google.tasks.max-results:100}")
     private int maxResults;
 
+    @Value("${google.tasks.max-tasks-per-list:0}")
+    private int maxTasksPerList;
+
+    @Value("${google.tasks.max-task-limit:1000}")
+    private int maxTaskLimit;
+
+    @Value("${google.tasks.pagination.prefetch:true}")
+    private boolean prefetchPages;
+
+    @Value("${google.tasks.fetch.concurrent:true}")
+    private boolean concurrentFetch;
+
+    @Value("${google.tasks.fetch.per-request-parallelism:8}")
+    private int perRequestParallelism;
+
+    @Value("${google.tasks.fetch.failure-mode:FAIL_FAST}")
+    private FetchFailureMode failureMode;
+
+    @Value("${google.tasks.batch.max-size:50}")
+    private int batchMaxSize;
+
+    @Value("${google.tasks.sync.enabled:false}")
+    private boolean incrementalSync;
+
+    @Value("${google.tasks.sync.clock-skew:5s}")
+    private Duration syncClockSkew;
+
+    @Value("${tasks.async.enabled:false}")
+    private boolean asyncEnabled;
+
     public List<TaskListDto> listTasks(String accessToken) {
+        return listTasks(accessToken, null);
+    }
+
+    public List<TaskListDto> listTasks(String accessToken, Integer taskLimit) {
+        return listTasks(accessToken, taskLimit, TaskQuery.full());
+    }
+
+    public List<TaskListDto> listTasks(String accessToken, Integer taskLimit, TaskQuery query) {
+        int limit = resolveTaskLimit(taskLimit);
+        String userKey = tokenValidator.userKey(accessToken);
+        // Peticiones idénticas simultáneas (varias pestañas, refrescos duplicados) comparten el mismo resultado
+        return coalescer.execute("listTasks", List.of(userKey, limit, incrementalSync, query), () -> {
+            List<TaskListDto> taskListDtos = new ArrayList<>();
+            streamTaskLists(accessToken, userKey, limit, query, incrementalSync, Instant.now(), taskListDtos::add);
+            return taskListDtos;
+        });
+    }
+
+    /**
+     * Igual que {@link #listTasks(String, Integer, TaskQuery)}, pero con {@code tasks.async.enabled} el hilo de la
+     * petición queda libre: cada llamada a Google se encadena a la anterior y se ejecuta, bloqueando, en un hilo
+     * del pool de consultas (las que no caben esperan en su cola). Sin el modo asíncrono se ejecuta en el hilo
+     * llamante y devuelve el future ya completado.
+     */
+    public CompletableFuture<List<TaskListDto>> listTasksAsync(String accessToken, Integer taskLimit, TaskQuery query) {
+        if (!asyncEnabled) {
+            return CompletableFuture.completedFuture(listTasks(accessToken, taskLimit, query));
+        }
+        int limit = resolveTaskLimit(taskLimit);
+        String userKey = tokenValidator.userKey(accessToken);
+        return coalescer.executeAsync("listTasks", List.of(userKey, limit, incrementalSync, query),
+                () -> fetchTaskListsAsync(accessToken, userKey, limit, query));
+    }
+
+    /**
+     * Entrega cada lista a {@code sink} en cuanto está completa, en el orden de Google,
+     * sin acumular el resto de listas en memoria.
+     */
+    public int streamTasks(String accessToken, Integer taskLimit, Consumer<TaskListDto> sink) {
+        return streamTasks(accessToken, taskLimit, TaskQuery.full(), sink);
+    }
+
+    public int streamTasks(String accessToken, Integer taskLimit, TaskQuery query, Consumer<TaskListDto> sink) {
+        return streamTaskLists(accessToken, tokenValidator.userKey(accessToken), resolveTaskLimit(taskLimit),
+                query, incrementalSync, Instant.now(), sink);
+    }
+
+    /**
+     * Sincroniza incrementalmente todas las listas del usuario y devuelve solo lo que cambió
+     * desde {@code since} (o todo, si el cursor es nulo o demasiado antiguo).
+     */
+    public TaskChangesDto listChanges(String accessToken, Instant since) {
+        String userKey = tokenValidator.userKey(accessToken);
+        Instant cursor = Instant.now();
+        TaskChangesDto changes = TaskChangesDto.builder()
+                .cursor(cursor.toString())
+                .build();
+        Set<String> currentListIds = new HashSet<>();
+
+        streamTaskLists(accessToken, userKey, 0, TaskQuery.full(), true, cursor, taskListDto -> {
+            currentListIds.add(taskListDto.getId());
+            changes.getTaskLists().add(snapshotStore.changesSince(userKey, taskListDto, since, syncClockSkew));
+        });
+
+        snapshotStore.retainTaskLists(userKey, currentListIds, cursor);
+        changes.setRemovedTaskListIds(snapshotStore.removedTaskListsSince(userKey, since, syncClockSkew));
+        return changes;
+    }
+
+    private int streamTaskLists(String accessToken, String userKey, int taskLimit, TaskQuery query, boolean incremental,
+                                Instant syncStartedAt, Consumer<TaskListDto> sink) {
         try {
             log.info("Obteniendo listas de tareas desde Google Tasks API");
 
-            com.google.api.services.tasks.Tasks tasksClient = clientFactory.createClient(accessToken);
-            com.google.api.services.tasks.model.TaskLists taskLists = tasksClient.tasklists().list().execute();
+            List<com.google.api.services.tasks.model.TaskList> taskLists = fetchAllTaskLists(accessToken);
 
-            if (taskLists.getItems() == null || taskLists.getItems().isEmpty()) {
+            if (taskLists.isEmpty()) {
                 log.info("No se encontraron listas de tareas");
-                return new ArrayList<>();
+                recordReturned("taskLists", 0, 0);
+                return 0;
             }
 
-            List<TaskListDto> taskListDtos = new ArrayList<>();
-            for (com.google.api.services.tasks.model.TaskList taskList : taskLists.getItems()) {
-                TaskListDto taskListDto = buildTaskListDto(tasksClient, taskList);
-                taskListDtos.add(taskListDto);
+            FetchContext context = fetchContext(accessToken, userKey, taskLimit, query, incremental, syncStartedAt);
+            int[] taskCount = new int[1];
+            Consumer<TaskListDto> countingSink = taskListDto -> {
+                taskCount[0] += taskListDto.getTasks() != null ? taskListDto.getTasks().size() : 0;
+                sink.accept(taskListDto);
+            };
+            if (concurrentFetch && taskLists.size() > 1) {
+                emitTaskListDtosConcurrently(context, taskLists, countingSink);
+            } else {
+                emitTaskListDtosSequentially(context, taskLists, countingSink);
             }
 
-            log.info("Se obtuvieron exitosamente {} listas de tareas", taskListDtos.size());
-            return taskListDtos;
+            log.info("Se obtuvieron exitosamente {} listas de tareas", taskLists.size());
+            recordReturned("taskLists", taskLists.size(), taskCount[0]);
+            return taskLists.size();
 
         } catch (IOException e) {
             log.error("Error al obtener tareas desde Google API: {}", e.getMessage(), e);
@@ -58,105 +219,679 @@ public class TasksService {
         }
     }
 
-    private TaskListDto buildTaskListDto(com.google.api.services.tasks.Tasks tasksClient,
+    private CompletableFuture<List<TaskListDto>> fetchTaskListsAsync(String accessToken, String userKey, int taskLimit,
+                                                                     TaskQuery query) {
+        Instant syncStartedAt = Instant.now();
+        log.info("Obteniendo listas de tareas desde Google Tasks API (modo asíncrono)");
+
+        return supplyIo(() -> fetchAllTaskLists(accessToken))
+                .thenCompose(taskLists -> {
+                    FetchContext context = fetchContext(accessToken, userKey, taskLimit, query,
+                            incrementalSync, syncStartedAt);
+                    return buildTaskListDtosAsync(context, taskLists);
+                })
+                .thenApply(taskListDtos -> {
+                    int taskCount = taskListDtos.stream()
+                            .mapToInt(taskListDto -> taskListDto.getTasks() != null ? taskListDto.getTasks().size() : 0)
+                            .sum();
+                    log.info("Se obtuvieron exitosamente {} listas de tareas", taskListDtos.size());
+                    recordReturned("taskLists", taskListDtos.size(), taskCount);
+                    return taskListDtos;
+                })
+                .exceptionallyCompose(error -> {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof IOException) {
+                        log.error("Error al obtener tareas desde Google API: {}", cause.getMessage(), cause);
+                        return CompletableFuture.failedFuture(
+                                new GoogleApiException("Error al obtener tareas desde Google API", cause));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    /**
+     * Equivalente asíncrono de la ventana deslizante de {@link #emitTaskListDtosConcurrently}: las listas se
+     * reparten en {@code perRequestParallelism} carriles que las consultan una tras otra. Cada consulta ocupa un
+     * hilo del pool mientras espera a Google, pero entre una y otra ningún hilo queda esperando al carril.
+     * En FAIL_FAST el primer fallo completa el resultado y los carriles no empiezan más listas.
+     */
+    private CompletableFuture<List<TaskListDto>> buildTaskListDtosAsync(
+            FetchContext context, List<com.google.api.services.tasks.model.TaskList> taskLists) {
+        TaskListDto[] results = new TaskListDto[taskLists.size()];
+        CompletableFuture<List<TaskListDto>> result = new CompletableFuture<>();
+        int lanes = concurrentFetch ? Math.max(1, Math.min(perRequestParallelism, taskLists.size())) : 1;
+        CompletableFuture<?>[] laneFutures = new CompletableFuture<?>[lanes];
+
+        for (int lane = 0; lane < lanes; lane++) {
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            for (int i = lane; i < taskLists.size(); i += lanes) {
+                int index = i;
+                com.google.api.services.tasks.model.TaskList taskList = taskLists.get(index);
+                chain = chain.thenCompose(ignored -> result.isDone()
+                        ? CompletableFuture.completedFuture(null)
+                        : supplyIo(() -> buildTaskListDto(context, taskList))
+                                .handle((taskListDto, error) -> error == null
+                                        ? taskListDto : failedTaskListDtoAsync(taskList, unwrap(error)))
+                                .thenAccept(taskListDto -> results[index] = taskListDto));
+            }
+            laneFutures[lane] = chain.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                }
+            });
+        }
+
+        CompletableFuture.allOf(laneFutures).thenRun(() -> result.complete(new ArrayList<>(Arrays.asList(results))));
+        return result;
+    }
+
+    private TaskListDto failedTaskListDtoAsync(com.google.api.services.tasks.model.TaskList taskList, Throwable error) {
+        if (failureMode == FetchFailureMode.FAIL_FAST
+                || !(error instanceof IOException || error instanceof RuntimeException)) {
+            throw new CompletionException(error);
+        }
+        return failedTaskListDto(taskList, (Exception) error);
+    }
+
+    private <T> CompletableFuture<T> supplyIo(GoogleCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.execute();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, fetchExecutor);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // La sincronización incremental solo aplica a listas completas con todos sus campos, no a listas
+    // truncadas por límite ni proyectadas; el resumen cuenta todas las tareas, sin límite
+    private static FetchContext fetchContext(String accessToken, String userKey,
+                                             int taskLimit, TaskQuery query, boolean incremental,
+                                             Instant syncStartedAt) {
+        int limit = query.isSummary() ? 0 : taskLimit;
+        return new FetchContext(accessToken, userKey, limit, query,
+                incremental && limit == 0 && query.isFull(), syncStartedAt);
+    }
+
+    public TaskPageDto listTaskPage(String accessToken, String taskListId, String pageToken, Integer taskLimit) {
+        return listTaskPage(accessToken, taskListId, pageToken, taskLimit, TaskQuery.full());
+    }
+
+    public TaskPageDto listTaskPage(String accessToken, String taskListId, String pageToken, Integer taskLimit,
+                                    TaskQuery query) {
+        try {
+            log.info("Obteniendo página de tareas de la lista {}", taskListId);
+
+            int limit = taskLimit != null && taskLimit > 0 ? Math.min(taskLimit, maxTaskLimit) : maxResults;
+
+            TaskPageDto page = fetchTaskPages(accessToken, taskListId, pageToken, limit, query);
+            recordReturned("taskPage", 1, page.getTasks().size());
+            return page;
+
+        } catch (IOException e) {
+            log.error("Error al obtener tareas de la lista {}: {}", taskListId, e.getMessage(), e);
+            throw new GoogleApiException("Error al obtener tareas desde Google API", e);
+        }
+    }
+
+    private List<com.google.api.services.tasks.model.TaskList> fetchAllTaskLists(String accessToken)
+            throws IOException {
+        List<com.google.api.services.tasks.model.TaskList> taskLists = new ArrayList<>();
+        String pageToken = null;
+        do {
+            com.google.api.services.tasks.Tasks.Tasklists.List request = clientFactory.authorize(
+                    clientFactory.client().tasklists()
+                            .list()
+                            .setMaxResults(Integer.valueOf(GOOGLE_MAX_PAGE_SIZE))
+                            .setPageToken(pageToken)
+                            .setFields(TASK_LIST_FIELDS), accessToken);
+            com.google.api.services.tasks.model.TaskLists page =
+                    googleCalls.execute(GoogleOperation.LIST_TASK_LISTS, request::execute);
+            if (page.getItems() != null) {
+                taskLists.addAll(page.getItems());
+            }
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+        return taskLists;
+    }
+
+    // Lo que pide el cliente nunca supera max-task-limit, aunque la configuración devuelva listas completas
+    private int resolveTaskLimit(Integer taskLimit) {
+        if (taskLimit != null && taskLimit > 0) {
+            int cap = maxTasksPerList > 0 ? Math.min(maxTasksPerList, maxTaskLimit) : maxTaskLimit;
+            return Math.min(taskLimit, cap);
+        }
+        return maxTasksPerList;
+    }
+
+    private void emitTaskListDtosSequentially(
+            FetchContext context,
+            List<com.google.api.services.tasks.model.TaskList> taskLists,
+            Consumer<TaskListDto> sink) throws IOException {
+        for (com.google.api.services.tasks.model.TaskList taskList : taskLists) {
+            TaskListDto taskListDto;
+            try {
+                taskListDto = buildTaskListDto(context, taskList);
+            } catch (IOException | RuntimeException e) {
+                taskListDto = handleTaskListFailure(taskList, e);
+            }
+            sink.accept(taskListDto);
+        }
+    }
+
+    private void emitTaskListDtosConcurrently(
+            FetchContext context,
+            List<com.google.api.services.tasks.model.TaskList> taskLists,
+            Consumer<TaskListDto> sink) throws IOException {
+        // Ventana deslizante: como mucho perRequestParallelism listas en vuelo por petición
+        // (el pool compartido limita el total) y se entregan en el orden en que Google las devolvió
+        int window = Math.max(1, perRequestParallelism);
+        List<Future<TaskListDto>> futures = new ArrayList<>(taskLists.size());
+        int emitted = 0;
+
+        try {
+            while (emitted < taskLists.size()) {
+                while (futures.size() < taskLists.size() && futures.size() - emitted < window) {
+                    com.google.api.services.tasks.model.TaskList taskList = taskLists.get(futures.size());
+                    try {
+                        futures.add(fetchExecutor.submit(() -> buildTaskListDto(context, taskList)));
+                    } catch (RejectedExecutionException e) {
+                        throw new GoogleApiException("No se pudo programar la consulta de la lista " + taskList.getId(), e);
+                    }
+                }
+
+                sink.accept(awaitTaskListDto(futures.get(emitted), taskLists.get(emitted)));
+                futures.set(emitted, null);
+                emitted++;
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(futures);
+            throw new GoogleApiException("Se interrumpió la obtención de listas de tareas", e);
+        } catch (IOException | RuntimeException e) {
+            cancelAll(futures);
+            throw e;
+        }
+    }
+
+    private TaskListDto awaitTaskListDto(Future<TaskListDto> future,
+                                         com.google.api.services.tasks.model.TaskList taskList)
+            throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException || cause instanceof RuntimeException) {
+                return handleTaskListFailure(taskList, (Exception) cause);
+            }
+            throw new GoogleApiException("Error inesperado al obtener la lista " + taskList.getId(), cause);
+        }
+    }
+
+    private TaskListDto handleTaskListFailure(com.google.api.services.tasks.model.TaskList taskList,
+                                              Exception e) throws IOException {
+        if (failureMode == FetchFailureMode.FAIL_FAST) {
+            if (e instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw (RuntimeException) e;
+        }
+        return failedTaskListDto(taskList, e);
+    }
+
+    private static TaskListDto failedTaskListDto(com.google.api.services.tasks.model.TaskList taskList, Exception e) {
+        log.warn("No se pudieron obtener las tareas de la lista {}: {}", taskList.getId(), e.getMessage());
+        return TaskListDto.builder()
+                .id(taskList.getId())
+                .title(taskList.getTitle() != null ? taskList.getTitle() : "Untitled")
+                .error("No se pudieron obtener las tareas de esta lista")
+                .build();
+    }
+
+    private static void cancelAll(List<Future<TaskListDto>> futures) {
+        for (Future<TaskListDto> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private TaskListDto buildTaskListDto(FetchContext context,
                                          com.google.api.services.tasks.model.TaskList taskList) throws IOException {
+        List<Object> key = List.of(context.userKey(), taskList.getId(), context.taskLimit(), context.query(),
+                context.incremental());
+        return coalescer.executeIo("taskList", key, () -> loadTaskListDto(context, taskList));
+    }
+
+    private TaskListDto loadTaskListDto(FetchContext context,
+                                        com.google.api.services.tasks.model.TaskList taskList) throws IOException {
         String listId = taskList.getId();
         String listTitle = taskList.getTitle() != null ? taskList.getTitle() : "Untitled";
 
-        List<TaskDto> tasks = fetchTasksForList(tasksClient, listId);
+        if (context.incremental()) {
+            return TaskListDto.builder()
+                    .id(listId)
+                    .title(listTitle)
+                    .tasks(syncTasksForList(context, listId))
+                    .build();
+        }
+
+        if (context.query().isSummary()) {
+            return summarizeTaskList(context, listId, listTitle);
+        }
+
+        TaskPageDto page = fetchTaskPages(context.accessToken(), listId, null, context.taskLimit(), context.query());
 
         return TaskListDto.builder()
                 .id(listId)
                 .title(listTitle)
-                .tasks(tasks)
+                .tasks(page.getTasks())
+                .nextPageToken(page.getNextPageToken())
                 .build();
     }
 
-    private List<TaskDto> fetchTasksForList(com.google.api.services.tasks.Tasks tasksClient,
-                                            String listId) throws IOException {
-        com.google.api.services.tasks.model.Tasks tasks = tasksClient.tasks()
-                .list(listId)
-                .setMaxResults(Integer.valueOf(maxResults))
-                .execute();
+    /**
+     * La primera vez descarga la lista completa; a partir de ahí solo pide a Google lo modificado
+     * desde la última sincronización (incluidas tareas borradas u ocultas) y lo aplica sobre la copia local.
+     */
+    private List<TaskDto> syncTasksForList(FetchContext context, String listId) throws IOException {
+        // Se toma la hora de inicio de la petición: así el cursor devuelto al cliente nunca es posterior a la copia
+        Instant syncStartedAt = context.syncStartedAt();
+        TaskSnapshot snapshot = snapshotStore.get(context.userKey(), listId);
 
-        if (tasks.getItems() == null) {
-            return new ArrayList<>();
+        if (snapshot == null) {
+            TaskSnapshot fresh = new TaskSnapshot(syncStartedAt);
+            forEachTask(context.accessToken(), listId, null, 0, null, SYNC_FIELDS, TaskFilter.none(),
+                    task -> fresh.upsert(taskMapper.toTaskDto(task), task.getParent(), task.getPosition(),
+                            parseUpdated(task, syncStartedAt)));
+            snapshotStore.put(context.userKey(), listId, fresh);
+            return fresh.tasks();
         }
 
+        // Se solapa un margen con la sincronización anterior por si los relojes no coinciden; aplicar dos veces es inocuo
+        String updatedMin = snapshot.getSyncedAt().minus(syncClockSkew).toString();
+        forEachTask(context.accessToken(), listId, null, 0, updatedMin, SYNC_FIELDS, TaskFilter.none(), task -> {
+            Instant updated = parseUpdated(task, syncStartedAt);
+            if (Boolean.TRUE.equals(task.getDeleted()) || Boolean.TRUE.equals(task.getHidden())) {
+                snapshot.remove(task.getId(), updated);
+            } else {
+                snapshot.upsert(taskMapper.toTaskDto(task), task.getParent(), task.getPosition(), updated);
+            }
+        });
+        snapshot.markSynced(syncStartedAt, snapshotStore.getTombstoneRetention());
+        return snapshot.tasks();
+    }
+
+    private static Instant parseUpdated(com.google.api.services.tasks.model.Task task, Instant fallback) {
+        if (task.getUpdated() == null) {
+            return fallback;
+        }
+        try {
+            return Instant.parse(task.getUpdated());
+        } catch (DateTimeParseException e) {
+            return fallback;
+        }
+    }
+
+    // Solo se pide a Google el estado de cada tarea, lo justo para contarlas
+    private TaskListDto summarizeTaskList(FetchContext context, String listId, String listTitle) throws IOException {
+        int[] counts = new int[2];
+        TaskQuery query = context.query();
+        forEachTask(context.accessToken(), listId, null, 0, null, query.googleListFields(), query.filter(), task -> {
+            counts[0]++;
+            if (TaskStatus.COMPLETED.getValue().equals(task.getStatus())) {
+                counts[1]++;
+            }
+        });
+        return TaskListDto.builder()
+                .id(listId)
+                .title(listTitle)
+                .tasks(null)
+                .taskCount(counts[0])
+                .completedCount(counts[1])
+                .build();
+    }
+
+    private TaskPageDto fetchTaskPages(String accessToken, String listId,
+                                       String pageToken, int taskLimit, TaskQuery query) throws IOException {
         List<TaskDto> taskDtos = new ArrayList<>();
-        for (com.google.api.services.tasks.model.Task task : tasks.getItems()) {
-            TaskDto taskDto = convertToTaskDto(task);
-            taskDtos.add(taskDto);
+        String nextPageToken;
+        if (query.isSorted()) {
+            // Un token de Google continúa su orden manual, no el pedido: no hay forma de seguir desde él
+            if (pageToken != null) {
+                throw new InvalidQueryException("'sort' no se puede combinar con 'pageToken'");
+            }
+            // Google solo devuelve su orden manual: con límite hay que recorrer la lista entera para quedarse
+            // con las primeras en el orden pedido, y no queda página siguiente que ofrecer
+            List<com.google.api.services.tasks.model.Task> tasks = firstSorted(accessToken, listId, taskLimit, query);
+            tasks.forEach(task -> taskDtos.add(taskMapper.toTaskDto(task, query)));
+            nextPageToken = null;
+        } else {
+            nextPageToken = forEachTask(accessToken, listId, pageToken, taskLimit, null, query.googleListFields(),
+                    query.filter(), task -> taskDtos.add(taskMapper.toTaskDto(task, query)));
         }
 
-        return taskDtos;
+        return TaskPageDto.builder()
+                .taskListId(listId)
+                .tasks(taskDtos)
+                .nextPageToken(nextPageToken)
+                .build();
     }
 
-    private TaskDto convertToTaskDto(com.google.api.services.tasks.model.Task task) {
-        String taskId = task.getId() != null ? task.getId() : "";
-        String title = task.getTitle() != null ? task.getTitle() : "Untitled";
-        TaskStatus status = TaskStatus.fromValue(task.getStatus() != null ? task.getStatus() : "needsAction");
+    // Sin límite se ordena la lista completa; con él solo se guardan en memoria las taskLimit primeras
+    private List<com.google.api.services.tasks.model.Task> firstSorted(String accessToken, String listId,
+                                                                       int taskLimit, TaskQuery query) throws IOException {
+        // A igualdad de clave se conserva el orden de Google, como en una ordenación estable
+        Comparator<SortedTask> order = Comparator.<SortedTask, com.google.api.services.tasks.model.Task>comparing(
+                SortedTask::task, taskComparator(query.sort())).thenComparingInt(SortedTask::index);
+        int capacity = taskLimit > 0 ? taskLimit : Integer.MAX_VALUE;
+        PriorityQueue<SortedTask> worstFirst = new PriorityQueue<>(order.reversed());
+        int[] index = new int[1];
+        forEachTask(accessToken, listId, null, 0, null, query.googleListFields(), query.filter(), task -> {
+            worstFirst.add(new SortedTask(task, index[0]++));
+            if (worstFirst.size() > capacity) {
+                worstFirst.poll();
+            }
+        });
 
-        LocalDateTime dueDate = parseDueDate(taskId, task.getDue());
-        String notes = task.getNotes() != null ? task.getNotes() : "";
+        List<SortedTask> sorted = new ArrayList<>(worstFirst);
+        sorted.sort(order);
+        return sorted.stream().map(SortedTask::task).toList();
+    }
 
-        return TaskDto.builder()
-                .id(taskId)
-                .title(title)
-                .status(status)
-                .dueDate(dueDate)
-                .notes(notes)
-                .build();
+    private record SortedTask(com.google.api.services.tasks.model.Task task, int index) {
     }
 
-    private LocalDateTime parseDueDate(String taskId, String dueDateString) {
-        if (dueDateString == null || dueDateString.trim().isEmpty()) {
-            return null;
+    /**
+     * Recorre las páginas de una lista hasta agotarla o alcanzar {@code taskLimit} (0 = sin límite)
+     * y devuelve el token de la página siguiente, si quedó alguna sin leer.
+     * Mientras se procesa una página, la siguiente ya se está pidiendo a Google.
+     * El filtro se pide a Google y, lo que Google no garantiza, se comprueba aquí en la misma pasada.
+     */
+    private String forEachTask(String accessToken, String listId, String pageToken,
+                               int taskLimit, String updatedMin, String fields, TaskFilter filter,
+                               Consumer<com.google.api.services.tasks.model.Task> onTask) throws IOException {
+        int processed = 0;
+        com.google.api.services.tasks.model.Tasks page =
+                requestTaskPage(accessToken, listId, pageToken, taskLimit, 0, updatedMin, fields, filter);
+
+        while (true) {
+            int fetched = processed + (page.getItems() != null ? page.getItems().size() : 0);
+            String nextPageToken = page.getNextPageToken();
+            boolean limitReached = taskLimit > 0 && fetched >= taskLimit;
+
+            Future<com.google.api.services.tasks.model.Tasks> prefetched = null;
+            if (prefetchPages && nextPageToken != null && !limitReached) {
+                prefetched = prefetchExecutor.submit(
+                        () -> requestTaskPage(accessToken, listId, nextPageToken, taskLimit, fetched, updatedMin, fields, filter));
+            }
+
+            if (page.getItems() != null) {
+                long conversionStart = System.nanoTime();
+                for (com.google.api.services.tasks.model.Task task : page.getItems()) {
+                    if (matchesStatus(filter, task)) {
+                        onTask.accept(task);
+                    }
+                }
+                conversionTimer().record(System.nanoTime() - conversionStart, TimeUnit.NANOSECONDS);
+            }
+            processed = fetched;
+
+            if (nextPageToken == null || limitReached) {
+                return nextPageToken;
+            }
+
+            page = prefetched != null
+                    ? awaitPage(prefetched)
+                    : requestTaskPage(accessToken, listId, nextPageToken, taskLimit, fetched, updatedMin, fields, filter);
+        }
+    }
+
+    private com.google.api.services.tasks.model.Tasks requestTaskPage(
+            String accessToken, String listId, String pageToken,
+            int taskLimit, int alreadyFetched, String updatedMin, String fields, TaskFilter filter) throws IOException {
+        // Se ajusta el tamaño de página para no pasarse del límite y que nextPageToken siga siendo exacto
+        int pageSize = Math.min(maxResults, GOOGLE_MAX_PAGE_SIZE);
+        if (taskLimit > 0) {
+            pageSize = Math.min(pageSize, taskLimit - alreadyFetched);
+        }
+
+        com.google.api.services.tasks.Tasks.TasksOperations.List request = clientFactory.authorize(
+                clientFactory.client().tasks()
+                        .list(listId)
+                        .setMaxResults(Integer.valueOf(pageSize))
+                        .setPageToken(pageToken)
+                        .setFields(fields), accessToken);
+        if (updatedMin != null) {
+            request.setUpdatedMin(updatedMin)
+                    .setShowDeleted(Boolean.TRUE)
+                    .setShowHidden(Boolean.TRUE);
         }
+        applyFilter(request, filter);
+        return googleCalls.execute(GoogleOperation.LIST_TASKS, request::execute);
+    }
 
+    private static void applyFilter(com.google.api.services.tasks.Tasks.TasksOperations.List request, TaskFilter filter) {
+        if (filter.status() == TaskStatus.NEEDS_ACTION) {
+            request.setShowCompleted(Boolean.FALSE);
+        }
+        if (filter.onlyCompleted()) {
+            // Las tareas completadas desde las apps de Google quedan ocultas; sin showHidden no aparecerían.
+            // Pedir completedMin deja fuera las pendientes, que no tienen fecha de completado
+            request.setShowHidden(Boolean.TRUE)
+                    .setCompletedMin(filter.completedMin() != null ? filter.completedMin().toString() : Instant.EPOCH.toString());
+        }
+        if (filter.completedMax() != null) {
+            request.setCompletedMax(filter.completedMax().toString());
+        }
+        if (filter.dueMin() != null) {
+            request.setDueMin(filter.dueMin().toString());
+        }
+        if (filter.dueMax() != null) {
+            request.setDueMax(filter.dueMax().toString());
+        }
+    }
+
+    // Google no tiene un filtro exacto por estado: se comprueba sobre lo que devuelve
+    private static boolean matchesStatus(TaskFilter filter, com.google.api.services.tasks.model.Task task) {
+        if (filter.status() == null) {
+            return true;
+        }
+        return filter.status().getValue().equals(task.getStatus() != null ? task.getStatus() : TaskStatus.NEEDS_ACTION.getValue());
+    }
+
+    // Tareas sin vencimiento o sin título al final en ambos sentidos; a igualdad se conserva el orden de Google
+    private static Comparator<com.google.api.services.tasks.model.Task> taskComparator(TaskSort sort) {
+        Comparator<String> order = sort.getField() == TaskField.TITLE ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+        if (sort.isDescending()) {
+            order = order.reversed();
+        }
+        return Comparator.comparing(task -> sortKey(sort, task), Comparator.nullsLast(order));
+    }
+
+    // Google envía siempre el vencimiento con el mismo formato RFC 3339 en UTC, así que se compara como texto
+    private static String sortKey(TaskSort sort, com.google.api.services.tasks.model.Task task) {
+        String value = sort.getField() == TaskField.TITLE ? task.getTitle() : task.getDue();
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private com.google.api.services.tasks.model.Tasks awaitPage(
+            Future<com.google.api.services.tasks.model.Tasks> prefetched) throws IOException {
         try {
-            // Intentar parsear formato RFC 3339 (ej: "2021-07-09T00:00:00.000Z")
-            Instant instant = Instant.parse(dueDateString);
-            return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
-        } catch (DateTimeParseException e) {
-            try {
-                // Intentar formato alternativo solo con fecha (ej: "2021-07-09")
-                return LocalDateTime.parse(dueDateString + "T00:00:00",
-                        DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            } catch (DateTimeParseException ex) {
-                log.warn("No se pudo parsear la fecha de vencimiento '{}' para la tarea {}: {}",
-                        dueDateString, taskId, ex.getMessage());
-                return null;
+            return prefetched.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            prefetched.cancel(true);
+            throw new GoogleApiException("Se interrumpió la obtención de la siguiente página de tareas", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
+            throw new GoogleApiException("Error inesperado al obtener la siguiente página de tareas", cause);
         }
     }
 
+    /**
+     * Con {@code tasks.async.enabled} la llamada a Google ocupa un hilo del pool de consultas en lugar del
+     * de la petición; sin él se ejecuta en el hilo llamante.
+     */
+    public CompletableFuture<Void> markTaskCompleteAsync(String taskListId, String taskId, String accessToken,
+                                                         String etag, Instant completedAt) {
+        if (!asyncEnabled) {
+            markTaskComplete(taskListId, taskId, accessToken, etag, completedAt);
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(
+                () -> markTaskComplete(taskListId, taskId, accessToken, etag, completedAt), fetchExecutor);
+    }
+
     public void markTaskComplete(String taskListId, String taskId, String accessToken) {
+        markTaskComplete(taskListId, taskId, accessToken, null, null);
+    }
+
+    /**
+     * Completa la tarea con un único patch que solo lleva el estado (y, si se indica, la hora real de
+     * completado, para aplicar en orden completados hechos sin conexión). Con {@code etag} el cambio
+     * solo se aplica si nadie modificó la tarea desde que el cliente la leyó.
+     */
+    public void markTaskComplete(String taskListId, String taskId, String accessToken,
+                                 String etag, Instant completedAt) {
         try {
             log.info("Marcando tarea {} como completada en la lista {}", taskId, taskListId);
 
-            com.google.api.services.tasks.Tasks tasksClient = clientFactory.createClient(accessToken);
-
-            // Obtener la tarea primero para verificar que existe
-            com.google.api.services.tasks.model.Task task = tasksClient.tasks()
-                    .get(taskListId, taskId)
-                    .execute();
-
-            if (task == null) {
-                throw new TaskNotFoundException(taskId);
+            com.google.api.services.tasks.Tasks.TasksOperations.Patch patch = clientFactory.authorize(
+                    clientFactory.client().tasks()
+                            .patch(taskListId, taskId, completionPatch(completedAt))
+                            .setFields("id,status"), accessToken);
+            if (etag != null && !etag.isBlank()) {
+                patch.getRequestHeaders().setIfMatch(etag);
             }
-
-            // Actualizar el estado de la tarea a completada
-            task.setStatus("completed");
-            tasksClient.tasks()
-                    .update(taskListId, taskId, task)
-                    .execute();
+            googleCalls.execute(GoogleOperation.PATCH_TASK, patch::execute);
 
             log.info("Tarea {} marcada exitosamente como completada", taskId);
 
+        } catch (GoogleJsonResponseException e) {
+            if (e.getStatusCode() == 404) {
+                throw new TaskNotFoundException(taskId);
+            }
+            if (e.getStatusCode() == 412) {
+                throw new TaskConflictException(taskId);
+            }
+            log.error("Error al marcar tarea {} como completada: {}", taskId, e.getMessage(), e);
+            throw new GoogleApiException("Error al marcar tarea como completada", e);
         } catch (IOException e) {
             log.error("Error al marcar tarea {} como completada: {}", taskId, e.getMessage(), e);
             throw new GoogleApiException("Error al marcar tarea como completada", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Completa varias tareas agrupándolas en peticiones batch de Google (como mucho
+     * {@code google.tasks.batch.max-size} por batch) y devuelve el resultado de cada una en el mismo orden.
+     */
+    public List<TaskCompletionResultDto> markTasksComplete(List<TaskCompletionRequest> requests, String accessToken) {
+        log.info("Marcando {} tareas como completadas mediante batch", requests.size());
+
+        TaskCompletionResultDto[] results = new TaskCompletionResultDto[requests.size()];
+        int chunkSize = Math.max(1, batchMaxSize);
+
+        for (int start = 0; start < requests.size(); start += chunkSize) {
+            int from = start;
+            int end = Math.min(requests.size(), start + chunkSize);
+            try {
+                // El batch se reconstruye en cada reintento; completar una tarea es idempotente
+                googleCalls.execute(GoogleOperation.BATCH, () -> {
+                    BatchRequest batch = clientFactory.batch(accessToken);
+                    for (int i = from; i < end; i++) {
+                        TaskCompletionRequest request = requests.get(i);
+                        // Solo se envía el estado y solo se pide de vuelta lo imprescindible
+                        clientFactory.authorize(clientFactory.client().tasks()
+                                        .patch(request.getTaskListId(), request.getTaskId(), completionPatch(request.getCompleted()))
+                                        .setFields("id,status"), accessToken)
+                                .queue(batch, completionCallback(results, i, request));
+                    }
+                    batch.execute();
+                    return null;
+                });
+            } catch (IOException e) {
+                log.error("Error al ejecutar el batch de tareas {}-{}: {}", start, end - 1, e.getMessage(), e);
+                // Si Google rechazó el batch entero (p. ej. 401 por el token) cada tarea lleva ese estado
+                Integer status = e instanceof HttpResponseException httpError ? httpError.getStatusCode() : null;
+                for (int i = start; i < end; i++) {
+                    if (results[i] == null) {
+                        results[i] = TaskCompletionResultDto.failed(requests.get(i), status,
+                                "Error al comunicarse con Google Tasks API");
+                    }
+                }
+            }
+        }
+
+        long completed = Arrays.stream(results).filter(TaskCompletionResultDto::isSuccess).count();
+        log.info("Batch finalizado: {} de {} tareas completadas", completed, results.length);
+        return Arrays.asList(results);
+    }
+
+    private static com.google.api.services.tasks.model.Task completionPatch(Instant completedAt) {
+        com.google.api.services.tasks.model.Task patch = new com.google.api.services.tasks.model.Task()
+                .setStatus(TaskStatus.COMPLETED.getValue());
+        if (completedAt != null) {
+            patch.setCompleted(completedAt.toString());
+        }
+        return patch;
+    }
+
+    private static JsonBatchCallback<com.google.api.services.tasks.model.Task> completionCallback(
+            TaskCompletionResultDto[] results, int index, TaskCompletionRequest request) {
+        return new JsonBatchCallback<>() {
+            @Override
+            public void onSuccess(com.google.api.services.tasks.model.Task task, HttpHeaders responseHeaders) {
+                results[index] = TaskCompletionResultDto.completed(request);
+            }
+
+            @Override
+            public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                log.warn("No se pudo completar la tarea {} de la lista {}: {}",
+                        request.getTaskId(), request.getTaskListId(), error.getMessage());
+                results[index] = TaskCompletionResultDto.failed(request, error.getCode(), error.getMessage());
+            }
+        };
+    }
+
+    // Tamaño de cada respuesta: listas y tareas devueltas por petición, por tipo de consulta
+    private void recordReturned(String query, int taskLists, int tasks) {
+        DistributionSummary.builder("tasks.response.task-lists")
+                .description("Listas de tareas devueltas por petición")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(taskLists);
+        DistributionSummary.builder("tasks.response.tasks")
+                .description("Tareas devueltas por petición")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(tasks);
+    }
+
+    private Timer conversionTimer() {
+        return Timer.builder("tasks.conversion")
+                .description("Procesado de cada página de Google (conversión a DTO y aplicación sobre la copia local)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record FetchContext(String accessToken,
+                                String userKey,
+                                int taskLimit,
+                                TaskQuery query,
+                                boolean incremental,
+                                Instant syncStartedAt) {
+    }
+}
@@ -0,0 +1,265 @@
+package com.microservicios.tasks.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.UrlEncodedContent;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonObjectParser;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.Key;
+import com.microservicios.tasks.enums.GoogleOperation;
+import com.microservicios.tasks.exception.InvalidTokenException;
+import com.microservicios.tasks.exception.RateLimitExceededException;
+import com.microservicios.tasks.exception.ServiceUnavailableException;
+import com.microservicios.tasks.util.TokenHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Valida los tokens de acceso contra el endpoint tokeninfo de Google antes de hacer ninguna otra
+ * llamada, y cachea el resultado (identidad y caducidad) por el hash del token.
+ * <p>
+ * Los tokens inválidos se rechazan con {@link InvalidTokenException} y también se cachean durante
+ * {@code google.auth.token-validation.invalid-ttl}, para que repetirlos no llegue a Google.
+ * La clave de usuario resultante es estable entre renovaciones del token (se deriva del {@code sub}
+ * de Google) y es la que usan las cachés y límites por usuario.
+ * <p>
+ * Si tokeninfo no responde, el token se acepta sin verificar y ese resultado se recuerda
+ * {@code google.auth.token-validation.unverified-ttl}: durante una caída no se consulta en cada llamada.
+ */
+@Slf4j
+@Component
+public class TokenValidator {
+
+    private final GoogleCallExecutor googleCalls;
+    private final RequestCoalescer coalescer;
+    private final MeterRegistry meterRegistry;
+    private final HttpRequestFactory requestFactory;
+    private final GenericUrl tokenInfoUrl;
+    private final boolean enabled;
+    private final List<String> acceptedScopes;
+    private final Duration invalidTtl;
+    private final Duration unverifiedTtl;
+    private final Cache<String, TokenInfo> cache;
+
+    public TokenValidator(GoogleCallExecutor googleCalls,
+                          RequestCoalescer coalescer,
+                          MeterRegistry meterRegistry,
+                          HttpTransport googleHttpTransport,
+                          @Value("${google.auth.token-validation.enabled:true}") boolean enabled,
+                          @Value("${google.auth.token-validation.url:https://oauth2.googleapis.com/tokeninfo}") String tokenInfoUrl,
+                          @Value("${google.auth.token-validation.accepted-scopes:https://www.googleapis.com/auth/tasks,https://www.googleapis.com/auth/tasks.readonly}") String[] acceptedScopes,
+                          @Value("${google.auth.token-validation.max-size:10000}") long maxSize,
+                          @Value("${google.auth.token-validation.ttl:5m}") Duration ttl,
+                          @Value("${google.auth.token-validation.invalid-ttl:30s}") Duration invalidTtl,
+                          @Value("${google.auth.token-validation.unverified-ttl:10s}") Duration unverifiedTtl) {
+        this.googleCalls = googleCalls;
+        this.coalescer = coalescer;
+        this.meterRegistry = meterRegistry;
+        this.requestFactory = googleHttpTransport.createRequestFactory(request ->
+                request.setParser(new JsonObjectParser(GsonFactory.getDefaultInstance())));
+        this.tokenInfoUrl = new GenericUrl(tokenInfoUrl);
+        this.enabled = enabled;
+        this.acceptedScopes = Arrays.stream(acceptedScopes).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        this.invalidTtl = invalidTtl;
+        this.unverifiedTtl = unverifiedTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenInfoExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tokenInfo");
+    }
+
+    /**
+     * @return la identidad asociada al token
+     * @throws InvalidTokenException si Google rechaza el token, ha caducado o no da acceso a Google Tasks
+     */
+    public ValidatedToken validate(String accessToken) {
+        String tokenHash = TokenHasher.sha256Hex(accessToken);
+        if (!enabled) {
+            return new ValidatedToken(tokenHash, null);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "cached";
+        try {
+            TokenInfo info = cache.getIfPresent(tokenHash);
+            if (info == null) {
+                result = "validated";
+                info = coalescer.execute("tokenInfo", tokenHash, () -> lookup(accessToken, tokenHash));
+            }
+            if (!info.verified()) {
+                result = "unverified";
+            } else if (info.invalidReason() != null || info.isExpired(Instant.now())) {
+                result = "invalid";
+                throw new InvalidTokenException(info.invalidReason() != null
+                        ? info.invalidReason() : "El token de acceso ha expirado");
+            }
+            return new ValidatedToken(info.userKey(), info.expiresAt());
+        } finally {
+            sample.stop(Timer.builder("google.auth.token.validation")
+                    .description("Validación del token de acceso, según se resolvió")
+                    .tag("result", result)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Identidad de un token que ya se validó en esta petición: se lee de la caché sin medirla
+     * otra vez. Si no está (caducó entre medias) se valida de nuevo.
+     */
+    public ValidatedToken resolve(String accessToken) {
+        String tokenHash = TokenHasher.sha256Hex(accessToken);
+        if (!enabled) {
+            return new ValidatedToken(tokenHash, null);
+        }
+        TokenInfo info = cache.getIfPresent(tokenHash);
+        if (info != null && info.invalidReason() == null && !info.isExpired(Instant.now())) {
+            return new ValidatedToken(info.userKey(), info.expiresAt());
+        }
+        return validate(accessToken);
+    }
+
+    public String userKey(String accessToken) {
+        return resolve(accessToken).userKey();
+    }
+
+    private TokenInfo lookup(String accessToken, String tokenHash) {
+        TokenInfoResponse response;
+        try {
+            // El token va en el cuerpo y no en la URL para que no acabe en logs de acceso
+            response = googleCalls.execute(GoogleOperation.TOKEN_INFO, () -> requestFactory
+                    .buildPostRequest(tokenInfoUrl, new UrlEncodedContent(Map.of("access_token", accessToken)))
+                    .execute()
+                    .parseAs(TokenInfoResponse.class));
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == 400 || e.getStatusCode() == 401) {
+                return remember(tokenHash, TokenInfo.invalid("El token de acceso es inválido o ha expirado"));
+            }
+            return remember(tokenHash, unverified(tokenHash, e));
+        } catch (IOException | ServiceUnavailableException | RateLimitExceededException e) {
+            return remember(tokenHash, unverified(tokenHash, e));
+        }
+
+        if (!hasAcceptedScope(response.scope)) {
+            return remember(tokenHash, TokenInfo.invalid("El token de acceso no da acceso a Google Tasks"));
+        }
+        // Sin "sub" (tokens sin scopes de identidad) la clave de usuario es el propio hash del token
+        String userKey = response.sub != null ? TokenHasher.sha256Hex("sub:" + response.sub) : tokenHash;
+        return remember(tokenHash, new TokenInfo(userKey, parseExpiry(response), null, true));
+    }
+
+    private TokenInfo remember(String tokenHash, TokenInfo info) {
+        cache.put(tokenHash, info);
+        return info;
+    }
+
+    // Si tokeninfo no responde no se bloquea al usuario: la llamada a Google Tasks decidirá
+    private static TokenInfo unverified(String tokenHash, Exception e) {
+        log.warn("No se pudo validar el token de acceso, se continúa sin validar: {}", e.getMessage());
+        return new TokenInfo(tokenHash, null, null, false);
+    }
+
+    private boolean hasAcceptedScope(String scope) {
+        if (acceptedScopes.isEmpty() || scope == null) {
+            return true;
+        }
+        List<String> granted = Arrays.asList(scope.split(" "));
+        return acceptedScopes.stream().anyMatch(granted::contains);
+    }
+
+    private static Instant parseExpiry(TokenInfoResponse response) {
+        try {
+            if (response.exp != null) {
+                return Instant.ofEpochSecond(Long.parseLong(response.exp));
+            }
+            if (response.expiresIn != null) {
+                return Instant.now().plusSeconds(Long.parseLong(response.expiresIn));
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Caducidad del token no válida: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    public record ValidatedToken(String userKey, Instant expiresAt) {
+    }
+
+    private record TokenInfo(String userKey, Instant expiresAt, String invalidReason, boolean verified) {
+
+        private static TokenInfo invalid(String reason) {
+            return new TokenInfo(null, null, reason, true);
+        }
+
+        private boolean isExpired(Instant now) {
+            return expiresAt != null && !expiresAt.isAfter(now);
+        }
+    }
+
+    /**
+     * Los tokens válidos se guardan como mucho {@code ttl} y nunca más allá de su caducidad;
+     * los inválidos, {@code invalid-ttl}, y los que no se pudieron verificar, {@code unverified-ttl}.
+     */
+    private final class TokenInfoExpiry implements Expiry<String, TokenInfo> {
+
+        private final Duration ttl;
+
+        private TokenInfoExpiry(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, TokenInfo info, long currentTime) {
+            if (info.invalidReason() != null) {
+                return invalidTtl.toNanos();
+            }
+            if (!info.verified()) {
+                return unverifiedTtl.toNanos();
+            }
+            if (info.expiresAt() == null) {
+                return ttl.toNanos();
+            }
+            Duration untilExpiry = Duration.between(Instant.now(), info.expiresAt());
+            return Math.max(0, Math.min(ttl.toNanos(), untilExpiry.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenInfo info, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, info, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenInfo info, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public static class TokenInfoResponse extends GenericJson {
+        @Key
+        private String sub;
+        @Key
+        private String scope;
+        @Key
+        private String exp;
+        @Key("expires_in")
+        private String expiresIn;
+    }
+}
@@ -0,0 +1,138 @@
+package com.microservicios.tasks.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Parseo sin excepciones de las dos formas de fecha que devuelve Google Tasks:
+ * "2021-07-09T00:00:00.000Z" (RFC 3339 en UTC) y "2021-07-09" (solo fecha).
+ * <p>
+ * Cualquier otra forma (offsets distintos de Z, años de más de 4 dígitos, segundos
+ * intercalares, espacios...) devuelve null para que el llamador recurra a java.time,
+ * de modo que el resultado es siempre el mismo que con Instant.parse / LocalDateTime.parse.
+ */
+public final class DueDateParser {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+    private static final int[] NANO_SCALE = {
+            0, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private DueDateParser() {
+    }
+
+    /**
+     * @param zone        zona a la que se convierten los instantes RFC 3339
+     * @param fixedOffset offset de la zona si es fijo (evita crear un Instant para consultar las reglas), o null
+     * @return la fecha convertida, o null si la cadena no tiene una de las dos formas soportadas
+     */
+    public static LocalDateTime parse(String value, ZoneId zone, ZoneOffset fixedOffset) {
+        int length = value.length();
+        if (length == 10) {
+            return parseDate(value);
+        }
+        if (length < 20 || length > 30) {
+            return null;
+        }
+        return parseUtcDateTime(value, length, zone, fixedOffset);
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        if (year < 0 || month < 0 || day < 0
+                || value.charAt(4) != '-' || value.charAt(7) != '-'
+                || !isValidDate(year, month, day)) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, 0, 0);
+    }
+
+    private static LocalDateTime parseUtcDateTime(String value, int length, ZoneId zone, ZoneOffset fixedOffset) {
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0
+                || value.charAt(4) != '-' || value.charAt(7) != '-'
+                || !isIgnoringCase(value.charAt(10), 'T')
+                || value.charAt(13) != ':' || value.charAt(16) != ':'
+                || !isIgnoringCase(value.charAt(length - 1), 'Z')
+                || hour > 23 || minute > 59 || second > 59
+                || !isValidDate(year, month, day)) {
+            return null;
+        }
+
+        int nano = 0;
+        if (length > 20) {
+            int fractionDigits = length - 21;
+            if (value.charAt(19) != '.' || fractionDigits < 1) {
+                return null;
+            }
+            int fraction = digits(value, 20, fractionDigits);
+            if (fraction < 0) {
+                return null;
+            }
+            nano = fraction * NANO_SCALE[fractionDigits];
+        }
+
+        long epochSecond = epochDay(year, month, day) * SECONDS_PER_DAY
+                + hour * 3_600L + minute * 60L + second;
+        ZoneOffset offset = fixedOffset != null
+                ? fixedOffset
+                : zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond, nano));
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, offset);
+    }
+
+    // Devuelve -1 si algún carácter no es un dígito ASCII
+    private static int digits(String value, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static boolean isIgnoringCase(char actual, char upperCase) {
+        return actual == upperCase || actual == Character.toLowerCase(upperCase);
+    }
+
+    private static boolean isValidDate(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        return day <= switch (month) {
+            case 2 -> isLeapYear(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    // Mismo cálculo que LocalDate.toEpochDay para años entre 0000 y 9999
+    private static long epochDay(int year, int month, int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
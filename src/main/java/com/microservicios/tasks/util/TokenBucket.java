@@ -0,0 +1,70 @@
+package com.microservicios.tasks.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket sin bloqueos implementado como GCRA: en lugar de contar fichas se guarda en un único
+ * {@link AtomicLong} el instante teórico en que el cubo volvería a estar lleno, y cada petición lo
+ * adelanta con un CAS. Equivale a un cubo de {@code capacity} fichas que se rellena a {@code permitsPerSecond}.
+ */
+public final class TokenBucket {
+
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double permitsPerSecond, long capacity) {
+        this(permitsPerSecond, capacity, System::nanoTime);
+    }
+
+    public TokenBucket(double permitsPerSecond, long capacity, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("La tasa y la capacidad del token bucket deben ser positivas");
+        }
+        this.nanosPerPermit = Math.max(1, Math.round(1_000_000_000d / permitsPerSecond));
+        this.burstNanos = nanosPerPermit * capacity;
+        this.nanoClock = nanoClock;
+        this.fullAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Intenta consumir {@code permits} fichas.
+     *
+     * @return 0 si se concedieron, o los nanosegundos que hay que esperar para que haya suficientes
+     */
+    public long tryAcquire(long permits) {
+        long cost = cost(permits);
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Devuelve fichas concedidas que al final no se usaron (p. ej. si otro límite rechazó la petición)
+    public void release(long permits) {
+        long now = nanoClock.getAsLong();
+        long cost = cost(permits);
+        fullAt.accumulateAndGet(cost, (current, refund) -> Math.max(now, current - refund));
+    }
+
+    // Una petición que pide más fichas que la capacidad necesita el cubo lleno, en vez de no caber nunca
+    private long cost(long permits) {
+        return Math.min(nanosPerPermit * Math.max(0, permits), burstNanos);
+    }
+
+    public long availablePermits() {
+        long now = nanoClock.getAsLong();
+        long used = Math.max(0, fullAt.get() - now);
+        return Math.max(0, (burstNanos - used) / nanosPerPermit);
+    }
+}
@@ -0,0 +1,83 @@
+package com.microservicios.tasks.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.google.api.services.tasks.model.Task;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@FakeGoogleTest
+class BinaryFormatsConfigTest {
+
+    private static final String TOKEN = "formats-token";
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        String listId = google.addTaskList("Trabajo");
+        google.addTask(listId, new Task().setTitle("Enviar informe").setStatus("needsAction")
+                .setDue("2026-05-04T00:00:00.000Z"));
+        google.addTask(listId, "Revisar contrato", "completed");
+    }
+
+    @Test
+    void binaryFormatsCarryTheSameDataAsJson() throws Exception {
+        JsonNode json = new ObjectMapper().readTree(getTaskLists(MediaType.APPLICATION_JSON));
+        JsonNode cbor = new CBORMapper().readTree(getTaskLists(CBOR));
+        JsonNode smile = new SmileMapper().readTree(getTaskLists(SMILE));
+
+        assertThat(cbor.get("data")).isEqualTo(json.get("data"));
+        assertThat(smile.get("data")).isEqualTo(json.get("data"));
+        // spring.jackson.* también se aplica a los formatos binarios: fechas como texto y sin nulos
+        assertThat(cbor.at("/data/taskLists/0/tasks/0/dueDate").asText()).isEqualTo("2026-05-04T00:00:00");
+        assertThat(cbor.at("/data/taskLists/0/tasks/1").has("dueDate")).isFalse();
+    }
+
+    @Test
+    void theDefaultFormatIsStillJson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/tasks").header("Authorization", "Bearer " + TOKEN)
+                        .accept(MediaType.ALL))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private byte[] getTaskLists(MediaType mediaType) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/tasks").header("Authorization", "Bearer " + TOKEN)
+                        .accept(mediaType))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
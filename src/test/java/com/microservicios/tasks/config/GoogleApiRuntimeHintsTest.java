@@ -0,0 +1,34 @@
+package com.microservicios.tasks.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.services.tasks.Tasks;
+import com.google.api.services.tasks.TasksRequest;
+import com.google.api.services.tasks.model.Task;
+import com.microservicios.tasks.dto.TaskChangesDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+class GoogleApiRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registersWhatTheGoogleClientReadsByReflection() {
+        new GoogleApiRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(Task.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(GoogleJsonError.ErrorInfo.class)).accepts(hints);
+        // Los parámetros de consulta de las peticiones también son campos @Key
+        assertThat(RuntimeHintsPredicates.reflection().onType(Tasks.TasksOperations.List.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TasksRequest.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource()
+                .forResource("com/google/api/client/http/google-http-client.properties")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TaskChangesDto.class)).accepts(hints);
+    }
+}
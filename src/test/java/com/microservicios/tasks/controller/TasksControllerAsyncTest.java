@@ -0,0 +1,72 @@
+package com.microservicios.tasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@FakeGoogleTest
+@TestPropertySource(properties = "tasks.async.enabled=true")
+class TasksControllerAsyncTest {
+
+    private static final String TOKEN = "controller-async-token";
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String listId;
+
+    @BeforeEach
+    void setUp() {
+        for (int list = 0; list < 12; list++) {
+            listId = google.addTaskList("Lista " + list);
+            for (int task = 0; task < 3; task++) {
+                google.addTask(listId, "Tarea " + list + "." + task, task == 0 ? "completed" : "needsAction");
+            }
+        }
+    }
+
+    @Test
+    void listsAsynchronously() throws Exception {
+        performAsync(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.taskListCount").value(12))
+                .andExpect(jsonPath("$.data.taskLists[11].tasks.length()").value(3));
+    }
+
+    @Test
+    void completesAsynchronouslyAndReportsGoogleErrorsAsInBlockingMode() throws Exception {
+        String taskId = google.addTask(listId, "Nueva", "needsAction");
+
+        performAsync(post("/api/tasks/{listId}/tasks/{taskId}/complete", listId, taskId))
+                .andExpect(status().isOk());
+        assertThat(google.getTask(listId, taskId).getStatus()).isEqualTo("completed");
+
+        performAsync(post("/api/tasks/{listId}/tasks/{taskId}/complete", listId, "no-existe"))
+                .andExpect(status().isNotFound());
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder.header("Authorization", "Bearer " + TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
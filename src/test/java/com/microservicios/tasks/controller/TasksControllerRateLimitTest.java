@@ -0,0 +1,89 @@
+package com.microservicios.tasks.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@FakeGoogleTest
+@TestPropertySource(properties = {
+        "tasks.rate-limit.user.calls-per-second=0.01",
+        "tasks.rate-limit.user.burst=2",
+        "tasks.cache.enabled=true"
+})
+class TasksControllerRateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    private String listId;
+
+    @BeforeEach
+    void setUp() {
+        listId = google.addTaskList("Trabajo");
+        google.addTask(listId, "Enviar informe", "needsAction");
+    }
+
+    @Test
+    void rejectsRequestsOverTheUserLimitWithRetryAfter() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/tasks/{listId}/tasks", listId).header("Authorization", "Bearer heavy-user"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/tasks/{listId}/tasks", listId).header("Authorization", "Bearer heavy-user"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"))
+                .andExpect(jsonPath("$.error").value("RATE_LIMIT_EXCEEDED"));
+
+        // El límite es por usuario: otro usuario sigue teniendo su cupo
+        mockMvc.perform(get("/api/tasks/{listId}/tasks", listId).header("Authorization", "Bearer light-user"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void chargesFullListingsByTheirGoogleCalls() throws Exception {
+        // Sin historial se suponen 5 listas (1 + 5 llamadas): la primera consume el cubo entero y la segunda no cabe
+        getAsync(get("/api/tasks").header("Authorization", "Bearer new-user"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks").param("view", "summary").header("Authorization", "Bearer new-user"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void responsesFromTheCacheAreNotCharged() throws Exception {
+        String etag = getAsync(get("/api/tasks").header("Authorization", "Bearer cached-user"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // El cubo del usuario está vacío, pero ninguna de las dos llega a Google
+        getAsync(get("/api/tasks").header("Authorization", "Bearer cached-user"))
+                .andExpect(status().isOk());
+        getAsync(get("/api/tasks").header("Authorization", "Bearer cached-user").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private ResultActions getAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
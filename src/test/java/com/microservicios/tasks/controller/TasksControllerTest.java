@@ -0,0 +1,202 @@
+package com.microservicios.tasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.services.tasks.model.Task;
+import com.jayway.jsonpath.JsonPath;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@FakeGoogleTest
+class TasksControllerTest {
+
+    private static final String TOKEN = "controller-token";
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String listId;
+
+    @BeforeEach
+    void setUp() {
+        listId = google.addTaskList("Trabajo");
+        google.addTask(listId, task("Preparar demo", "needsAction", "2024-05-10T00:00:00.000Z"));
+        google.addTask(listId, task("Enviar informe", "needsAction", "2024-05-07T00:00:00.000Z"));
+        google.addTask(listId, task("Renovar dominio", "needsAction", "2024-06-01T00:00:00.000Z"));
+        google.addTask(listId, task("Ordenar correo", "needsAction", null));
+        google.addTask(listId, task("Revisar contrato", "completed", "2024-05-08T00:00:00.000Z"));
+    }
+
+    @Test
+    void exposesProjectionAndSummary() throws Exception {
+        getAsync(get("/api/tasks").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalTasks").value(5))
+                .andExpect(jsonPath("$.data.note").doesNotExist())
+                .andExpect(jsonPath("$.data.taskLists[0].taskCount").value(5))
+                .andExpect(jsonPath("$.data.taskLists[0].completedCount").value(1))
+                .andExpect(jsonPath("$.data.taskLists[0].tasks").doesNotExist());
+
+        mockMvc.perform(authorized(get("/api/tasks").param("fields", "id,colour")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void exposesFiltersAndRejectsInvalidOnes() throws Exception {
+        getAsync(get("/api/tasks").param("status", "needsAction").param("sort", "-dueDate").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.taskLists[0].tasks[*].title").value(contains(
+                        "Renovar dominio", "Preparar demo", "Enviar informe", "Ordenar correo")));
+
+        mockMvc.perform(authorized(get("/api/tasks").param("status", "pending")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"));
+        mockMvc.perform(authorized(get("/api/tasks").param("dueMin", "2024-05-12").param("dueMax", "2024-05-06")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(authorized(get("/api/tasks").param("sort", "colour")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamsOneJsonObjectPerListAndATrailingSummary() throws Exception {
+        String personalId = google.addTaskList("Personal");
+        google.addTasks(personalId, 2);
+
+        String body = getAsync(get("/api/tasks").accept("application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+
+        List<JsonNode> lines = ndjsonLines(body);
+        assertThat(lines).extracting(line -> line.get("type").asText())
+                .containsExactly("taskList", "taskList", "summary");
+        assertThat(lines.get(0).at("/data/id").asText()).isEqualTo(listId);
+        assertThat(lines.get(0).at("/data/tasks")).hasSize(5);
+        assertThat(lines.get(1).at("/data/title").asText()).isEqualTo("Personal");
+        assertThat(lines.get(1).at("/data/tasks")).hasSize(2);
+        assertThat(lines.get(2).at("/data/taskListCount").asInt()).isEqualTo(2);
+        assertThat(lines.get(2).at("/data/totalTasks").asInt()).isEqualTo(7);
+
+        // El alias no necesita la cabecera Accept y devuelve exactamente lo mismo
+        String aliasBody = getAsync(get("/api/tasks/stream"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(aliasBody).isEqualTo(body);
+    }
+
+    @Test
+    void endsTheStreamWithAnErrorLineWhenAListFailsMidway() throws Exception {
+        google.addTasks(google.addTaskList("Personal"), 2);
+        String failingId = google.addTaskList("Compras");
+        google.failTaskList(failingId);
+
+        // El estado 200 ya se envió con las primeras listas: el error llega como última línea, sin resumen
+        String body = getAsync(get("/api/tasks/stream"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<JsonNode> lines = ndjsonLines(body);
+        assertThat(lines).extracting(line -> line.get("type").asText())
+                .containsExactly("taskList", "taskList", "error");
+        assertThat(lines.get(2).at("/data/success").asBoolean()).isFalse();
+        assertThat(lines.get(2).at("/data/message").asText()).isEqualTo("Error al obtener las listas de tareas");
+    }
+
+    @Test
+    void pagesThroughOneListWithItsNextPageToken() throws Exception {
+        String nextPageToken = JsonPath.read(mockMvc.perform(authorized(get("/api/tasks/{taskListId}/tasks", listId)
+                        .param("maxResults", "2")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.taskListId").value(listId))
+                .andExpect(jsonPath("$.data.tasks[*].title").value(contains("Preparar demo", "Enviar informe")))
+                .andReturn().getResponse().getContentAsString(), "$.data.nextPageToken");
+        assertThat(nextPageToken).isNotNull();
+
+        mockMvc.perform(authorized(get("/api/tasks/{taskListId}/tasks", listId)
+                        .param("pageToken", nextPageToken).param("maxResults", "5").param("fields", "title")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.tasks[*].title").value(contains(
+                        "Renovar dominio", "Ordenar correo", "Revisar contrato")))
+                .andExpect(jsonPath("$.data.tasks[0].status").doesNotExist())
+                .andExpect(jsonPath("$.data.nextPageToken").doesNotExist());
+    }
+
+    @Test
+    void answers304WithTheWeakEtagOfTheSameData() throws Exception {
+        String etag = getAsync(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+
+        // El timestamp del cuerpo cambia, pero los datos no
+        getAsync(get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        getAsync(get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, etag.substring(2)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void answers401WithoutCallingGoogleTasks() throws Exception {
+        google.revokeToken("expired-token");
+
+        mockMvc.perform(get("/api/tasks").header("Authorization", "Bearer expired-token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("INVALID_TOKEN"));
+
+        assertThat(google.getRequests()).allMatch(url -> url.getRawPath().endsWith("/tokeninfo"));
+    }
+
+    private ResultActions getAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(authorized(builder))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    // Cada línea tiene que ser un objeto JSON completo por sí sola
+    private List<JsonNode> ndjsonLines(String body) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder builder) {
+        return builder.header("Authorization", "Bearer " + TOKEN);
+    }
+
+    private static Task task(String title, String status, String due) {
+        return new Task().setTitle(title).setStatus(status).setDue(due);
+    }
+}
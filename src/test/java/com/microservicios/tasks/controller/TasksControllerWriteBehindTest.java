@@ -0,0 +1,88 @@
+package com.microservicios.tasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@FakeGoogleTest
+@TestPropertySource(properties = {"tasks.write-behind.enabled=true", "tasks.write-behind.flush-interval=50ms"})
+class TasksControllerWriteBehindTest {
+
+    private static final String TOKEN = "controller-write-behind-token";
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void journalPath(DynamicPropertyRegistry registry) {
+        registry.add("tasks.write-behind.journal-path", () -> directory.resolve("completions.journal").toString());
+    }
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String listId;
+    private String taskId;
+
+    @BeforeEach
+    void setUp() {
+        listId = google.addTaskList("Trabajo");
+        taskId = google.addTask(listId, "Enviar informe", "needsAction");
+    }
+
+    @Test
+    void acceptsTheCompletionAndSendsItInTheBackground() throws Exception {
+        performAsync(complete()).andExpect(status().isAccepted());
+
+        waitUntil(() -> "completed".equals(google.getTask(listId, taskId).getStatus()));
+    }
+
+    @Test
+    void completesSynchronouslyWhenTheRequestCarriesAnEtag() throws Exception {
+        String etag = google.getTask(listId, taskId).getEtag();
+
+        performAsync(complete().header("If-Match", etag)).andExpect(status().isOk());
+
+        assertThat(google.getTask(listId, taskId).getStatus()).isEqualTo("completed");
+    }
+
+    private MockHttpServletRequestBuilder complete() {
+        return post("/api/tasks/{listId}/tasks/{taskId}/complete", listId, taskId)
+                .header("Authorization", "Bearer " + TOKEN);
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condición no alcanzada a tiempo").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.microservicios.tasks.factory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.microservicios.tasks.dto.TaskCompletionRequest;
+import com.microservicios.tasks.dto.TaskCompletionResultDto;
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.dto.TaskQuery;
+import com.microservicios.tasks.service.TasksService;
+import com.microservicios.tasks.support.FakeGoogleTasksServer;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Con {@code google.tasks.root-url} el servicio habla con otro servidor usando su transporte real.
+ */
+@SpringBootTest(properties = {"eureka.client.enabled=false", "tasks.cache.enabled=false"})
+class GoogleTasksClientFactoryTest {
+
+    private static final String TOKEN = "root-url-token";
+
+    private static FakeGoogleTasksServer server;
+
+    @DynamicPropertySource
+    static void fakeGoogle(DynamicPropertyRegistry registry) throws Exception {
+        server = FakeGoogleTasksServer.start(new FakeGoogleTasksTransport());
+        registry.add("google.tasks.root-url", server::rootUrl);
+        registry.add("google.auth.token-validation.url", server::tokenInfoUrl);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @Autowired
+    private TasksService tasksService;
+
+    private Map<String, List<String>> taskIds;
+
+    @BeforeEach
+    void setUp() {
+        server.google().reset();
+        server.google().setRecordRequests(false);
+        server.resetCallCounts();
+        taskIds = server.populate(2, 7);
+    }
+
+    @Test
+    void listsAndCompletesTasksThroughTheConfiguredServer() {
+        server.setMaxPageSize(3);
+
+        List<TaskListDto> taskLists = tasksService.listTasks(TOKEN, null, TaskQuery.full());
+
+        assertThat(taskLists).extracting(TaskListDto::getId).containsExactlyElementsOf(taskIds.keySet());
+        assertThat(taskLists).allSatisfy(taskList -> assertThat(taskList.getTasks()).hasSize(7));
+        // 7 tareas en páginas de 3: tres llamadas por lista
+        assertThat(server.callCounts()).containsEntry("tasks.list", 6L);
+
+        String listId = taskIds.keySet().iterator().next();
+        List<TaskCompletionResultDto> results = tasksService.markTasksComplete(List.of(
+                TaskCompletionRequest.builder().taskListId(listId).taskId(taskIds.get(listId).get(1)).build(),
+                TaskCompletionRequest.builder().taskListId(listId).taskId(taskIds.get(listId).get(2)).build()), TOKEN);
+
+        assertThat(results).allMatch(TaskCompletionResultDto::isSuccess);
+        assertThat(server.google().getTask(listId, taskIds.get(listId).get(2)).getStatus()).isEqualTo("completed");
+        assertThat(server.callCounts()).containsEntry("batch", 1L).containsKey("oauth2.tokeninfo");
+    }
+
+    @Test
+    void sharesOneClientAndSendsEachRequestWithItsOwnToken() throws IOException {
+        List<String> authorizations = new CopyOnWriteArrayList<>();
+        MockHttpTransport transport = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() {
+                        authorizations.add(getFirstHeaderValue("Authorization"));
+                        return new MockLowLevelHttpResponse().setContentType("application/json").setContent("{}");
+                    }
+                };
+            }
+        };
+        GoogleTasksClientFactory factory = new GoogleTasksClientFactory(transport, 1000, 1000, "");
+
+        factory.authorize(factory.client().tasklists().list(), "token-a").execute();
+        factory.authorize(factory.client().tasklists().list(), "token-b").execute();
+
+        assertThat(factory.client()).isSameAs(factory.client());
+        assertThat(authorizations).containsExactly("Bearer token-a", "Bearer token-b");
+    }
+}
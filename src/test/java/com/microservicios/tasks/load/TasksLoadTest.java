@@ -0,0 +1,350 @@
+package com.microservicios.tasks.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import com.microservicios.tasks.support.FakeGoogleTasksServer;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Carga sobre el servicio completo (Tomcat, filtros, cachés, límites y transporte HTTP real) contra un
+ * {@link FakeGoogleTasksServer}: {@code mvn -Pload-test test}. Cada escenario mantiene {@code load.concurrency}
+ * clientes haciendo peticiones sin pausa en nombre de {@code load.users} usuarios y al terminar informa del
+ * throughput, los percentiles de latencia, los códigos de respuesta y las llamadas que llegaron a Google
+ * (también en {@code target/load-test/}).
+ * <p>
+ * Parámetros ({@code -Dload.<nombre>=valor}): users, concurrency, warmup-seconds, duration-seconds,
+ * google.latency-ms, google.error-rate, google.task-lists, google.tasks-per-list, google.page-size,
+ * batch-size (tareas por petición en POST /api/tasks/complete) y sweep.task-lists (número de listas de cada punto del barrido de latencia, separados por comas).
+ * Las propiedades del servicio también se pueden cambiar con -D. La caché de respuestas está desactivada salvo
+ * que se pida {@code -Dtasks.cache.enabled=true}: con ella, tras el calentamiento cada GET se serviría de memoria
+ * y no se mediría lo que cuesta ir a Google. Los límites por usuario también están desactivados salvo que se pida
+ * {@code -Dtasks.rate-limit.enabled=true}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "logging.level.root=WARN",
+        "logging.level.com.microservicios.tasks=WARN",
+        "logging.level.com.microservicios.tasks.load=INFO"})
+@Slf4j
+class TasksLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 20));
+    private static final Duration GOOGLE_LATENCY = Duration.ofMillis(Integer.getInteger("load.google.latency-ms", 50));
+    private static final double GOOGLE_ERROR_RATE = Double.parseDouble(System.getProperty("load.google.error-rate", "0"));
+    private static final int TASK_LISTS = Integer.getInteger("load.google.task-lists", 5);
+    private static final int TASKS_PER_LIST = Integer.getInteger("load.google.tasks-per-list", 50);
+    private static final int PAGE_SIZE = Integer.getInteger("load.google.page-size", 100);
+    private static final boolean CACHE_ENABLED = Boolean.getBoolean("tasks.cache.enabled");
+    private static final int BATCH_SIZE = Integer.getInteger("load.batch-size", 20);
+    private static final List<Integer> SWEEP_TASK_LISTS = Arrays.stream(
+                    System.getProperty("load.sweep.task-lists", "1,5,20,50").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .toList();
+
+    static {
+        // HttpURLConnection solo guarda http.maxConnections conexiones keep-alive por destino (5 por defecto)
+        System.setProperty("http.maxConnections", String.valueOf(Math.max(5, CONCURRENCY)));
+    }
+
+    private static FakeGoogleTasksServer google;
+    private static Map<String, List<String>> taskIds;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void fakeGoogle(DynamicPropertyRegistry registry) throws IOException {
+        google = FakeGoogleTasksServer.start(new FakeGoogleTasksTransport());
+        taskIds = google.populate(TASK_LISTS, TASKS_PER_LIST);
+        google.setLatency(GOOGLE_LATENCY);
+        google.setErrorRate(GOOGLE_ERROR_RATE);
+        google.setMaxPageSize(PAGE_SIZE);
+
+        registry.add("google.tasks.root-url", google::rootUrl);
+        registry.add("google.auth.token-validation.url", google::tokenInfoUrl);
+        registry.add("tasks.cache.enabled", () -> String.valueOf(CACHE_ENABLED));
+        registry.add("tasks.rate-limit.enabled", () -> System.getProperty("tasks.rate-limit.enabled", "false"));
+    }
+
+    @AfterAll
+    static void stopGoogle() {
+        google.close();
+    }
+
+    @Test
+    void listTaskLists() throws Exception {
+        Report report = run("GET /api/tasks", TASK_LISTS, user -> request("GET", "/api/tasks", user, null));
+
+        assertThat(report.successes()).isPositive();
+    }
+
+    /**
+     * Latencia de la consulta de todas las listas según cuántas tenga el usuario, para ver cómo escala el
+     * reparto concurrente por listas. Va por el endpoint NDJSON, que hace el mismo reparto pero nunca
+     * responde desde la caché de respuestas.
+     */
+    @Test
+    void listTaskListsByListCount() throws Exception {
+        List<Report> reports = new ArrayList<>();
+        try {
+            for (int taskLists : SWEEP_TASK_LISTS) {
+                google.clear();
+                google.populate(taskLists, TASKS_PER_LIST);
+                reports.add(run("GET /api/tasks/stream " + taskLists + " listas", taskLists,
+                        user -> request("GET", "/api/tasks/stream", user, null)));
+            }
+        } finally {
+            google.clear();
+            taskIds = google.populate(TASK_LISTS, TASKS_PER_LIST);
+        }
+
+        StringBuilder sweep = new StringBuilder(String.format("%n== Barrido por número de listas%n%8s %10s %10s %10s %12s%n",
+                "listas", "req/s", "p50 ms", "p99 ms", "llamadas/pet"));
+        reports.forEach(report -> sweep.append(String.format("%8d %10.1f %10.1f %10.1f %12.2f%n",
+                report.taskLists(), report.throughput(), report.percentile(0.5), report.percentile(0.99),
+                report.googleCallsPerRequest())));
+        publish("sweep-task-lists", sweep.toString());
+        assertThat(reports).allSatisfy(report -> assertThat(report.successes()).isPositive());
+    }
+
+    /**
+     * Completar de una en una frente a hacerlo en batch ({@code load.batch-size} tareas por petición, que el
+     * servicio envía a Google en peticiones batch): se comparan las tareas completadas por segundo.
+     */
+    @Test
+    void completeTasksOneByOneAndInBatches() throws Exception {
+        Report single = run("POST /api/tasks/{taskListId}/tasks/{taskId}/complete", TASK_LISTS, user -> {
+            String[] task = randomTask();
+            return request("POST", "/api/tasks/" + task[0] + "/tasks/" + task[1] + "/complete", user, null);
+        });
+        Report batch = run("POST /api/tasks/complete x" + BATCH_SIZE, TASK_LISTS, user -> {
+            StringBuilder body = new StringBuilder("{\"tasks\":[");
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                String[] task = randomTask();
+                body.append(i > 0 ? "," : "")
+                        .append("{\"taskListId\":\"").append(task[0])
+                        .append("\",\"taskId\":\"").append(task[1]).append("\"}");
+            }
+            return request("POST", "/api/tasks/complete", user, body.append("]}").toString());
+        });
+
+        double singleRate = single.throughput();
+        double batchRate = batch.throughput() * BATCH_SIZE;
+        publish("completion-single-vs-batch", String.format("""
+
+                == Tareas completadas por segundo
+                una por petición     %.1f tareas/s (p50 %.1f ms, %.2f llamadas a Google por tarea)
+                %d por petición      %.1f tareas/s (p50 %.1f ms, %.2f llamadas a Google por tarea)
+                batch / individual   %.1fx
+                """,
+                singleRate, single.percentile(0.5), single.googleCallsPerRequest(),
+                BATCH_SIZE, batchRate, batch.percentile(0.5), batch.googleCallsPerRequest() / BATCH_SIZE,
+                singleRate > 0 ? batchRate / singleRate : 0));
+        assertThat(single.successes()).isPositive();
+        assertThat(batch.successes()).isPositive();
+    }
+
+    // Completar es idempotente: da igual que varios usuarios repitan tarea
+    private static String[] randomTask() {
+        List<String> listIds = new ArrayList<>(taskIds.keySet());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String listId = listIds.get(random.nextInt(listIds.size()));
+        List<String> tasks = taskIds.get(listId);
+        return new String[] {listId, tasks.get(random.nextInt(tasks.size()))};
+    }
+
+    private Report run(String scenario, int taskLists, LoadRequest loadRequest) throws Exception {
+        measure(loadRequest, WARMUP);
+        google.resetCallCounts();
+
+        long start = System.nanoTime();
+        List<Samples> samples = measure(loadRequest, DURATION);
+        Report report = Report.of(scenario, taskLists, samples, System.nanoTime() - start, google.callCounts());
+
+        publish(scenario, report.format());
+        if (GOOGLE_ERROR_RATE == 0) {
+            assertThat(report.statuses()).as("respuestas 5xx sin errores de Google")
+                    .allSatisfy((status, count) -> assertThat(status).isLessThan(500));
+        }
+        return report;
+    }
+
+    private static void publish(String name, String text) throws IOException {
+        log.info("{}", text);
+        Path output = Path.of("target", "load-test");
+        Files.createDirectories(output);
+        Files.writeString(output.resolve(name.replaceAll("[^A-Za-z0-9]+", "-") + ".txt"), text);
+    }
+
+    // Bucle cerrado: cada cliente lanza la siguiente petición en cuanto recibe la respuesta anterior
+    private List<Samples> measure(LoadRequest loadRequest, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<Samples>> futures = new ArrayList<>();
+            for (int client = 0; client < CONCURRENCY; client++) {
+                futures.add(clients.submit(() -> {
+                    Samples samples = new Samples();
+                    while (System.nanoTime() < deadline) {
+                        String user = "load-user-" + ThreadLocalRandom.current().nextInt(USERS);
+                        long requestStart = System.nanoTime();
+                        int status = loadRequest.execute(user);
+                        samples.add(System.nanoTime() - requestStart, status);
+                    }
+                    return samples;
+                }));
+            }
+            List<Samples> samples = new ArrayList<>();
+            for (Future<Samples> future : futures) {
+                samples.add(future.get());
+            }
+            return samples;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private int request(String method, String path, String user, String jsonBody) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) URI.create("http://localhost:" + port + path)
+                    .toURL().openConnection();
+            connection.setRequestMethod(method);
+            connection.setRequestProperty("Authorization", "Bearer " + user);
+            if (jsonBody != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(jsonBody.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            // Leer el cuerpo entero permite reutilizar la conexión
+            try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (body != null) {
+                    body.readAllBytes();
+                }
+            }
+            return status;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @FunctionalInterface
+    private interface LoadRequest {
+        int execute(String user);
+    }
+
+    private static final class Samples {
+        private long[] latencies = new long[4096];
+        private int size;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        private void add(long latencyNanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            statuses.merge(status, 1, Integer::sum);
+        }
+    }
+
+    private record Report(String scenario, int taskLists, int requests, double throughput, long[] sortedLatencies,
+                          Map<Integer, Integer> statuses, Map<String, Long> googleCalls) {
+
+        static Report of(String scenario, int taskLists, List<Samples> samples, long elapsedNanos, Map<String, Long> googleCalls) {
+            int requests = samples.stream().mapToInt(sample -> sample.size).sum();
+            long[] latencies = new long[requests];
+            Map<Integer, Integer> statuses = new TreeMap<>();
+            int offset = 0;
+            for (Samples sample : samples) {
+                System.arraycopy(sample.latencies, 0, latencies, offset, sample.size);
+                offset += sample.size;
+                sample.statuses.forEach((status, count) -> statuses.merge(status, count, Integer::sum));
+            }
+            Arrays.sort(latencies);
+            return new Report(scenario, taskLists, requests, requests / (elapsedNanos / 1e9), latencies, statuses, googleCalls);
+        }
+
+        long successes() {
+            return statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey() >= 200 && entry.getKey() < 300)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+
+        double googleCallsPerRequest() {
+            long totalCalls = googleCalls.values().stream().mapToLong(Long::longValue).sum();
+            return requests > 0 ? (double) totalCalls / requests : 0;
+        }
+
+        String format() {
+            return String.format("""
+
+                    == %s
+                    %d clientes, %d usuarios, %d s (Google: %d ms, %.1f%% errores, %d listas x %d tareas, páginas de %d)
+                    caché             %s
+                    peticiones        %d (%.1f req/s)
+                    estados           %s (0 = error de conexión)
+                    latencia ms       p50 %.1f | p90 %.1f | p99 %.1f | p99.9 %.1f | max %.1f
+                    llamadas a Google %s
+                    por petición      %.2f (%s)
+                    """,
+                    scenario, CONCURRENCY, USERS, DURATION.toSeconds(), GOOGLE_LATENCY.toMillis(),
+                    GOOGLE_ERROR_RATE * 100, taskLists, TASKS_PER_LIST, PAGE_SIZE,
+                    CACHE_ENABLED ? "activada" : "desactivada",
+                    requests, throughput, statuses,
+                    percentile(0.5), percentile(0.9), percentile(0.99), percentile(0.999),
+                    sortedLatencies.length > 0 ? sortedLatencies[sortedLatencies.length - 1] / 1e6 : 0,
+                    googleCalls, googleCallsPerRequest(), googleCallsPerRequestByOperation());
+        }
+
+        private String googleCallsPerRequestByOperation() {
+            return googleCalls.entrySet().stream()
+                    .map(entry -> String.format("%s %.2f", entry.getKey(),
+                            requests > 0 ? (double) entry.getValue() / requests : 0))
+                    .collect(Collectors.joining(" | "));
+        }
+
+        double percentile(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
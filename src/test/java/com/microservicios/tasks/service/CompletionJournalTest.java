@@ -0,0 +1,75 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CompletionJournalTest {
+
+    private static final Instant COMPLETED = Instant.parse("2026-01-15T08:30:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversTheUnacknowledgedCompletionsAfterACrash() throws Exception {
+        Path file = directory.resolve("completions.journal");
+        CompletionJournal journal = CompletionJournal.open(file, objectMapper);
+        CompletionJournal.Entry first = journal.append("user", "list", "task-1", COMPLETED);
+        CompletionJournal.Entry second = journal.append("user", "list", "task-2", COMPLETED);
+        CompletionJournal.Entry third = journal.append("user", "list", "task-3", null);
+        journal.acknowledge(second.id());
+        // El proceso muere a mitad de escribir el siguiente registro, sin cerrar el diario
+        Files.write(file, "1a2b3c4d {\"op\":\"complete\",\"id\":3,\"entry\":{\"us".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        CompletionJournal recovered = CompletionJournal.open(file, objectMapper);
+
+        assertThat(recovered.pending()).containsExactly(first, third);
+        // El registro a medio escribir desaparece y el diario sigue siendo utilizable
+        CompletionJournal.Entry fourth = recovered.append("user", "list", "task-4", null);
+        assertThat(fourth.id()).isEqualTo(third.id() + 1);
+        recovered.close();
+        assertThat(CompletionJournal.open(file, objectMapper).pending()).containsExactly(first, third, fourth);
+    }
+
+    @Test
+    void skipsCorruptedRecordsAndKeepsTheRest() throws Exception {
+        Path file = directory.resolve("completions.journal");
+        CompletionJournal journal = CompletionJournal.open(file, objectMapper);
+        CompletionJournal.Entry first = journal.append("user", "list", "task-1", COMPLETED);
+        CompletionJournal.Entry second = journal.append("user", "list", "task-2", COMPLETED);
+        journal.close();
+        // Un bit cambiado en el primer registro: el CRC ya no coincide
+        String content = Files.readString(file);
+        Files.writeString(file, content.replaceFirst("task-1", "task-7"));
+
+        assertThat(CompletionJournal.open(file, objectMapper).pending())
+                .doesNotContain(first)
+                .containsExactly(second);
+    }
+
+    @Test
+    void emptiesTheFileOnceEverythingIsAcknowledged() throws Exception {
+        Path file = directory.resolve("completions.journal");
+        CompletionJournal journal = CompletionJournal.open(file, objectMapper);
+        CompletionJournal.Entry first = journal.append("user", "list", "task-1", COMPLETED);
+        CompletionJournal.Entry second = journal.append("user", "list", "task-2", COMPLETED);
+
+        journal.acknowledge(first.id());
+        journal.acknowledge(second.id());
+
+        assertThat(Files.size(file)).isZero();
+        assertThat(CompletionJournal.open(file, objectMapper).pending()).isEmpty();
+    }
+}
@@ -0,0 +1,130 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.microservicios.tasks.config.ResilienceConfig;
+import com.microservicios.tasks.enums.GoogleOperation;
+import com.microservicios.tasks.exception.RateLimitExceededException;
+import com.microservicios.tasks.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GoogleCallExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GoogleCallExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        ResilienceConfig config = new ResilienceConfig();
+        executor = new GoogleCallExecutor(
+                config.googleRetryRegistry(3, Duration.ofMillis(1), 2.0, Duration.ofMillis(5), Duration.ofSeconds(1)),
+                config.googleCircuitBreakerRegistry(50, 4, 4, Duration.ofSeconds(30), Duration.ofSeconds(10)),
+                config.googleBulkheadRegistry(10, Duration.ZERO),
+                meterRegistry);
+    }
+
+    @Test
+    void retriesTransientErrorsUntilTheCallSucceeds() throws IOException {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(GoogleOperation.LIST_TASKS, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw googleError(503, null);
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void recordsEveryAttemptAndTheWholeCall() throws IOException {
+        AtomicInteger attempts = new AtomicInteger();
+
+        executor.execute(GoogleOperation.LIST_TASKS, () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw googleError(503, null);
+            }
+            return "ok";
+        });
+
+        assertThat(meterRegistry.get("google.tasks.requests")
+                .tags("operation", "tasks.list", "outcome", "SERVER_ERROR", "status", "503")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("google.tasks.requests")
+                .tags("operation", "tasks.list", "outcome", "SUCCESS", "status", "2xx")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("google.tasks.calls")
+                .tags("operation", "tasks.list", "outcome", "SUCCESS")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(GoogleOperation.PATCH_TASK, () -> {
+            attempts.incrementAndGet();
+            throw googleError(404, null);
+        })).isInstanceOf(HttpResponseException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void failsFastWithTheHintWhenRetryAfterIsTooLong() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(GoogleOperation.LIST_TASKS, () -> {
+            attempts.incrementAndGet();
+            throw googleError(429, "120");
+        })).isInstanceOfSatisfying(RateLimitExceededException.class,
+                e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(120L));
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void opensTheCircuitAfterRepeatedUpstreamFailures() {
+        // Tres intentos fallidos; el cuarto fallo (ya en la segunda llamada) abre el circuito
+        assertThatThrownBy(() -> executor.execute(GoogleOperation.LIST_TASKS, () -> {
+            throw googleError(500, null);
+        })).isInstanceOf(HttpResponseException.class);
+        assertThatThrownBy(() -> executor.execute(GoogleOperation.LIST_TASKS, () -> {
+            throw googleError(500, null);
+        })).isInstanceOf(ServiceUnavailableException.class);
+
+        assertThatThrownBy(() -> executor.execute(GoogleOperation.LIST_TASKS, () -> "ok"))
+                .isInstanceOfSatisfying(ServiceUnavailableException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(30L));
+    }
+
+    @Test
+    void aTokenInfoOutageDoesNotOpenTheGoogleTasksCircuit() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> executor.execute(GoogleOperation.TOKEN_INFO, () -> {
+                throw googleError(500, null);
+            })).isInstanceOfAny(HttpResponseException.class, ServiceUnavailableException.class);
+        }
+        assertThatThrownBy(() -> executor.execute(GoogleOperation.TOKEN_INFO, () -> "ok"))
+                .isInstanceOf(ServiceUnavailableException.class);
+
+        assertThat(executor.execute(GoogleOperation.LIST_TASKS, () -> "ok")).isEqualTo("ok");
+    }
+
+    private static HttpResponseException googleError(int status, String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        if (retryAfter != null) {
+            headers.set("Retry-After", retryAfter);
+        }
+        return new HttpResponseException.Builder(status, "error " + status, headers).build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.microservicios.tasks.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import com.microservicios.tasks.enums.TaskStatus;
+
+/**
+ * Conversión original basada en excepciones de java.time. Sirve de referencia para las
+ * propiedades de TaskMapperPropertiesTest y de línea base en TaskConversionBenchmark.
+ */
+public final class LegacyTaskConversion {
+
+    private LegacyTaskConversion() {
+    }
+
+    public static LocalDateTime parseDueDate(String dueDateString, ZoneId zone) {
+        if (dueDateString == null || dueDateString.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.ofInstant(Instant.parse(dueDateString), zone);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(dueDateString + "T00:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            } catch (DateTimeParseException ex) {
+                return null;
+            }
+        }
+    }
+
+    public static TaskStatus statusFromValue(String value) {
+        for (TaskStatus status : TaskStatus.values()) {
+            if (status.getValue().equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task status: " + value);
+    }
+}
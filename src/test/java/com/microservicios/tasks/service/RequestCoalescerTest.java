@@ -0,0 +1,108 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentCallsWithTheSameKeyShareOneExecution() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true, Duration.ofSeconds(5));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                coalescer.execute("listTasks", "user-1", () -> {
+                    executions.incrementAndGet();
+                    leaderStarted.countDown();
+                    await(release);
+                    return "result";
+                }));
+        await(leaderStarted);
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() ->
+                coalescer.execute("listTasks", "user-1", () -> {
+                    executions.incrementAndGet();
+                    return "other";
+                }));
+
+        awaitCoalesced();
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void followersReceiveTheLeadersFailure() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true, Duration.ofSeconds(5));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                coalescer.execute("listTasks", "user-2", () -> {
+                    leaderStarted.countDown();
+                    await(release);
+                    throw new IllegalStateException("upstream down");
+                }));
+        await(leaderStarted);
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() ->
+                coalescer.execute("listTasks", "user-2", () -> "other"));
+
+        awaitCoalesced();
+        release.countDown();
+
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("upstream down");
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("upstream down");
+    }
+
+    @Test
+    void followerRunsOnItsOwnAfterTheMaximumWait() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true, Duration.ofMillis(20));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                coalescer.execute("listTasks", "user-3", () -> {
+                    leaderStarted.countDown();
+                    await(release);
+                    return "slow";
+                }));
+        await(leaderStarted);
+
+        String followerResult = coalescer.execute("listTasks", "user-3", () -> "own");
+
+        release.countDown();
+        assertThat(followerResult).isEqualTo("own");
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        assertThat(meterRegistry.counter("tasks.coalescing.timeouts", "operation", "listTasks").count()).isEqualTo(1.0);
+    }
+
+    private void awaitCoalesced() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("tasks.coalescing.coalesced").counters().stream().mapToDouble(c -> c.count()).sum() < 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
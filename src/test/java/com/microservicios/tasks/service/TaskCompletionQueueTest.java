@@ -0,0 +1,128 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BooleanSupplier;
+
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+@FakeGoogleTest
+@TestPropertySource(properties = {
+        "tasks.write-behind.enabled=true",
+        "tasks.write-behind.flush-interval=50ms",
+        "tasks.write-behind.retry.initial-interval=50ms",
+        "tasks.write-behind.retry.max-interval=200ms"})
+class TaskCompletionQueueTest {
+
+    private static final String TOKEN = "write-behind-token";
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void journalPath(DynamicPropertyRegistry registry) {
+        registry.add("tasks.write-behind.journal-path", () -> journalFile().toString());
+    }
+
+    @Autowired
+    private TaskCompletionQueue completionQueue;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    private String listId;
+
+    @BeforeEach
+    void setUp() {
+        listId = google.addTaskList("Trabajo");
+    }
+
+    @AfterEach
+    void waitForThePendingCompletions() throws InterruptedException {
+        google.setUnavailable(false);
+        waitUntil(() -> completionQueue.pendingCount() == 0);
+    }
+
+    @Test
+    void acceptsTheCompletionWhileGoogleIsDownAndSendsItLater() throws Exception {
+        String taskId = google.addTask(listId, "Enviar informe", "needsAction");
+        google.setUnavailable(true);
+
+        assertThat(completionQueue.enqueue(TOKEN, listId, taskId, null)).isTrue();
+
+        assertThat(completionQueue.pendingCount()).isEqualTo(1);
+        assertThat(google.getTask(listId, taskId).getStatus()).isEqualTo("needsAction");
+
+        google.setUnavailable(false);
+        waitUntil(() -> "completed".equals(google.getTask(listId, taskId).getStatus()));
+        waitUntil(() -> completionQueue.pendingCount() == 0);
+    }
+
+    @Test
+    void replaysTheJournalWhenTheUserComesBackAfterARestart() throws Exception {
+        String first = google.addTask(listId, "Enviar informe", "needsAction");
+        String second = google.addTask(listId, "Pagar factura", "needsAction");
+        google.setUnavailable(true);
+        completionQueue.enqueue(TOKEN, listId, first, null);
+        completionQueue.enqueue(TOKEN, listId, second, null);
+
+        // El proceso cae sin enviar nada y a mitad de escribir otro completado
+        completionQueue.stop();
+        Files.write(journalFile(), "0badc0de {\"op\":\"comp".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        google.setUnavailable(false);
+        Thread.sleep(200);
+        assertThat(google.getTask(listId, first).getStatus()).isEqualTo("needsAction");
+
+        completionQueue.start();
+
+        // El diario no guarda tokens: lo pendiente espera a la siguiente petición del usuario
+        waitUntil(() -> completionQueue.awaitingTokenCount() == 2);
+        assertThat(Files.readString(journalFile())).doesNotContain(TOKEN);
+        assertThat(google.getTask(listId, first).getStatus()).isEqualTo("needsAction");
+
+        completionQueue.offerToken(TOKEN);
+
+        waitUntil(() -> "completed".equals(google.getTask(listId, first).getStatus())
+                && "completed".equals(google.getTask(listId, second).getStatus()));
+        waitUntil(() -> completionQueue.awaitingTokenCount() == 0);
+    }
+
+    @Test
+    void dropsTheCompletionWhenGoogleRejectsTheToken() throws Exception {
+        String taskId = google.addTask(listId, "Enviar informe", "needsAction");
+        google.setUnavailable(true);
+        completionQueue.enqueue("soon-revoked-token", listId, taskId, null);
+
+        google.revokeToken("soon-revoked-token");
+        google.setUnavailable(false);
+
+        waitUntil(() -> completionQueue.pendingCount() == 0);
+        assertThat(google.getTask(listId, taskId).getStatus()).isEqualTo("needsAction");
+    }
+
+    private static Path journalFile() {
+        return directory.resolve("completions.journal");
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condición no alcanzada a tiempo").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.function.BooleanSupplier;
+
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@FakeGoogleTest
+class TaskEventPublisherTest {
+
+    // Dos tokens (p. ej. dos dispositivos) del mismo usuario de Google
+    private static final String LAPTOP_TOKEN = "events-laptop-token";
+    private static final String PHONE_TOKEN = "events-phone-token";
+
+    @Autowired
+    private TaskEventPublisher eventPublisher;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String listId;
+
+    @BeforeEach
+    void setUp() {
+        google.registerToken(LAPTOP_TOKEN, "events-user");
+        google.registerToken(PHONE_TOKEN, "events-user");
+        listId = google.addTaskList("Casa");
+        google.addTask(listId, "Regar las plantas", "needsAction");
+    }
+
+    @Test
+    void connectionsOfTheSameUserShareOnePollAndReceiveEachChangeOnce() throws Exception {
+        MvcResult laptop = subscribe(LAPTOP_TOKEN);
+        MvcResult phone = subscribe(PHONE_TOKEN);
+        waitUntil(() -> content(laptop).contains("event:ready") && content(phone).contains("event:ready"));
+        assertThat(eventPublisher.subscriberCount(LAPTOP_TOKEN)).isEqualTo(2);
+
+        google.addTask(listId, "Sacar la basura", "needsAction");
+        waitUntil(() -> content(laptop).contains("Sacar la basura") && content(phone).contains("Sacar la basura"));
+        // Los sondeos siguientes vuelven a ver el cambio por el margen de reloj, pero no se reenvía
+        Thread.sleep(500);
+
+        assertThat(occurrences(content(laptop), "event:changes")).isEqualTo(1);
+        assertThat(occurrences(content(phone), "event:changes")).isEqualTo(1);
+        assertThat(content(phone)).doesNotContain("Regar las plantas");
+        double polls = meterRegistry.find("tasks.events.polls").counters().stream().mapToDouble(Counter::count).sum();
+        assertThat((double) google.requestsTo("/users/@me/lists").size()).isLessThanOrEqualTo(polls + 1);
+
+        disconnect(laptop);
+        disconnect(phone);
+    }
+
+    @Test
+    void disconnectingReleasesTheConnectionAndStopsPolling() throws Exception {
+        MvcResult laptop = subscribe(LAPTOP_TOKEN);
+        waitUntil(() -> content(laptop).contains("event:ready"));
+
+        disconnect(laptop);
+        waitUntil(() -> eventPublisher.subscriberCount(LAPTOP_TOKEN) == 0);
+        Thread.sleep(200);
+        int requests = google.requestsTo("/users/@me/lists").size();
+        Thread.sleep(300);
+
+        assertThat(google.requestsTo("/users/@me/lists")).hasSize(requests);
+    }
+
+    private MvcResult subscribe(String token) throws Exception {
+        return mockMvc.perform(get("/api/tasks/events").header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // Equivale a que el cliente cierre la conexión
+    private static void disconnect(MvcResult result) {
+        result.getRequest().getAsyncContext().complete();
+    }
+
+    private static String content(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int occurrences(String text, String fragment) {
+        int count = 0;
+        for (int i = text.indexOf(fragment); i >= 0; i = text.indexOf(fragment, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condición no alcanzada a tiempo").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
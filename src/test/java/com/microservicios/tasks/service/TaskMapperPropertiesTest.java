@@ -0,0 +1,131 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import com.microservicios.tasks.enums.TaskStatus;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+class TaskMapperPropertiesTest {
+
+    private static final long MIN_EPOCH_SECOND = Instant.parse("0000-01-01T00:00:00Z").getEpochSecond();
+    private static final long MAX_EPOCH_SECOND = Instant.parse("9999-12-31T23:59:59Z").getEpochSecond();
+
+    @Property(tries = 5000)
+    void rfc3339InstantsMatchJavaTime(@ForAll("rfc3339") String due, @ForAll("zones") ZoneId zone) {
+        assertSameAsLegacy(due, zone);
+        assertThat(new TaskMapper(zone).parseDueDate("task", due)).isNotNull();
+    }
+
+    @Property(tries = 5000)
+    void dateOnlyValuesMatchJavaTime(@ForAll("dateOnly") String due, @ForAll("zones") ZoneId zone) {
+        assertSameAsLegacy(due, zone);
+    }
+
+    @Property(tries = 5000)
+    void nearMissesMatchJavaTime(@ForAll("nearMisses") String due, @ForAll("zones") ZoneId zone) {
+        assertSameAsLegacy(due, zone);
+    }
+
+    @Property(tries = 2000)
+    void arbitraryStringsMatchJavaTime(@ForAll("dateLikeStrings") String due, @ForAll("zones") ZoneId zone) {
+        assertSameAsLegacy(due, zone);
+    }
+
+    @Property(tries = 2000)
+    void statusLookupMatchesLinearScan(@ForAll("statuses") String value) {
+        TaskStatus expected;
+        try {
+            expected = LegacyTaskConversion.statusFromValue(value);
+        } catch (IllegalArgumentException e) {
+            assertThatThrownBy(() -> TaskStatus.fromValue(value))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage(e.getMessage());
+            return;
+        }
+        assertThat(TaskStatus.fromValue(value)).isEqualTo(expected);
+    }
+
+    private void assertSameAsLegacy(String due, ZoneId zone) {
+        LocalDateTime expected = LegacyTaskConversion.parseDueDate(due, zone);
+        assertThat(new TaskMapper(zone).parseDueDate("task", due)).as(due).isEqualTo(expected);
+    }
+
+    @Provide
+    Arbitrary<ZoneId> zones() {
+        return Arbitraries.of("UTC", "Europe/Madrid", "America/Bogota", "America/Santiago",
+                "Asia/Kolkata", "Pacific/Chatham", "Australia/Lord_Howe")
+                .map(ZoneId::of);
+    }
+
+    @Provide
+    Arbitrary<String> rfc3339() {
+        Arbitrary<Long> epochSeconds = Arbitraries.longs().between(MIN_EPOCH_SECOND, MAX_EPOCH_SECOND);
+        Arbitrary<Integer> nanos = Arbitraries.integers().between(0, 999_999_999);
+        Arbitrary<Integer> fractionDigits = Arbitraries.integers().between(0, 9);
+        Arbitrary<Boolean> lowerCase = Arbitraries.of(true, false);
+        return Combinators.combine(epochSeconds, nanos, fractionDigits, lowerCase).as((second, nano, digits, lower) -> {
+            String dateTime = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC)
+                    .format(DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss"));
+            String fraction = digits == 0 ? "" : "." + String.format("%09d", nano).substring(0, digits);
+            String value = dateTime + fraction + "Z";
+            return lower ? value.replace('T', 't').replace('Z', 'z') : value;
+        });
+    }
+
+    @Provide
+    Arbitrary<String> dateOnly() {
+        // Incluye meses y días fuera de rango y 29 de febrero en años no bisiestos
+        return Combinators.combine(
+                Arbitraries.integers().between(0, 9999),
+                Arbitraries.integers().between(0, 13),
+                Arbitraries.integers().between(0, 32)
+        ).as((year, month, day) -> String.format("%04d-%02d-%02d", year, month, day));
+    }
+
+    @Provide
+    Arbitrary<String> nearMisses() {
+        // Fechas válidas con un carácter sustituido, insertado o eliminado
+        Arbitrary<String> valid = Arbitraries.oneOf(rfc3339(), dateOnly());
+        Arbitrary<Character> replacement = Arbitraries.of('0', '9', '2', '-', ':', '.', 'T', 'Z', '+', ' ', 'x', '٠');
+        return Combinators.combine(valid, Arbitraries.integers().between(0, 29), replacement, Arbitraries.integers().between(0, 2))
+                .as((value, index, c, operation) -> {
+                    int position = Math.min(index, value.length() - 1);
+                    StringBuilder mutated = new StringBuilder(value);
+                    switch (operation) {
+                        case 0 -> mutated.setCharAt(position, c);
+                        case 1 -> mutated.insert(position, c);
+                        default -> mutated.deleteCharAt(position);
+                    }
+                    return mutated.toString();
+                });
+    }
+
+    @Provide
+    Arbitrary<String> dateLikeStrings() {
+        return Arbitraries.oneOf(
+                Arbitraries.strings().withChars("0123456789-:.TtZz+ ").ofMinLength(0).ofMaxLength(32),
+                Arbitraries.of("2024-01-01T24:00:00Z", "2016-12-31T23:59:60Z", "2024-05-01T10:00:00+02:00",
+                        "2024-05-01T10:00:00.Z", "+12024-05-01", " 2024-05-01", "2024-05-01 ", "05/01/2024",
+                        "2024-05-01T10:00:00.1234567890Z", "2024-05-01T10:00Z", "", "   "));
+    }
+
+    @Provide
+    Arbitrary<String> statuses() {
+        return Arbitraries.oneOf(
+                Arbitraries.of("needsAction", "completed", "NEEDSACTION", "Completed", "completed ", "done",
+                        "", "Kompleted"),
+                Arbitraries.strings().withChars("needsActioncompletedNEDSACTIOMPL").ofMaxLength(12));
+    }
+}
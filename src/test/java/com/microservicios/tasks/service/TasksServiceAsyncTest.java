@@ -0,0 +1,51 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.dto.TaskQuery;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@FakeGoogleTest
+@TestPropertySource(properties = "tasks.async.enabled=true")
+class TasksServiceAsyncTest {
+
+    private static final String TOKEN = "async-token";
+
+    @Autowired
+    private TasksService tasksService;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    @BeforeEach
+    void setUp() {
+        for (int list = 0; list < 12; list++) {
+            String id = google.addTaskList("Lista " + list);
+            for (int task = 0; task < 3; task++) {
+                google.addTask(id, "Tarea " + list + "." + task, task == 0 ? "completed" : "needsAction");
+            }
+        }
+    }
+
+    @Test
+    void returnsWithoutWaitingForGoogleAndMatchesTheBlockingResult() throws Exception {
+        List<TaskListDto> expected = tasksService.listTasks(TOKEN, null, TaskQuery.full());
+        google.setLatency(Duration.ofMillis(50));
+
+        CompletableFuture<List<TaskListDto>> future = tasksService.listTasksAsync(TOKEN, null, TaskQuery.full());
+
+        assertThat(future).isNotDone();
+        assertThat(future.get(10, TimeUnit.SECONDS)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,94 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.services.tasks.model.Task;
+import com.microservicios.tasks.dto.TaskCompletionRequest;
+import com.microservicios.tasks.dto.TaskCompletionResultDto;
+import com.microservicios.tasks.exception.TaskConflictException;
+import com.microservicios.tasks.exception.TaskNotFoundException;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@FakeGoogleTest
+class TasksServiceCompletionTest {
+
+    private static final String TOKEN = "completion-token";
+
+    @Autowired
+    private TasksService tasksService;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    private String listId;
+    private String taskId;
+
+    @BeforeEach
+    void setUp() {
+        listId = google.addTaskList("Trabajo");
+        taskId = google.addTask(listId, "Enviar informe", "needsAction");
+    }
+
+    @Test
+    void completesWithASinglePatch() {
+        tasksService.markTaskComplete(listId, taskId, TOKEN);
+
+        assertThat(google.getRequests()).singleElement()
+                .extracting(GenericUrl::getRawPath)
+                .isEqualTo("/tasks/v1/lists/" + listId + "/tasks/" + taskId);
+        Task task = google.getTask(listId, taskId);
+        assertThat(task.getStatus()).isEqualTo("completed");
+        assertThat(task.getTitle()).isEqualTo("Enviar informe");
+    }
+
+    @Test
+    void keepsTheOfflineCompletionTime() {
+        Instant completedAt = Instant.parse("2026-01-15T08:30:00Z");
+
+        tasksService.markTaskComplete(listId, taskId, TOKEN, null, completedAt);
+
+        assertThat(google.getTask(listId, taskId).getCompleted()).isEqualTo("2026-01-15T08:30:00Z");
+    }
+
+    @Test
+    void mapsGoogleNotFoundToTaskNotFound() {
+        assertThatThrownBy(() -> tasksService.markTaskComplete(listId, "missing", TOKEN))
+                .isInstanceOf(TaskNotFoundException.class);
+    }
+
+    @Test
+    void rejectsTheChangeWhenTheEtagIsStale() {
+        String staleEtag = google.getTask(listId, taskId).getEtag();
+        google.updateTask(listId, taskId, "Enviar informe (editado)");
+
+        assertThatThrownBy(() -> tasksService.markTaskComplete(listId, taskId, TOKEN, staleEtag, null))
+                .isInstanceOf(TaskConflictException.class);
+        assertThat(google.getTask(listId, taskId).getStatus()).isEqualTo("needsAction");
+    }
+
+    @Test
+    void completesSeveralTasksInOneBatchAndReportsEachFailure() {
+        String otherTaskId = google.addTask(listId, "Pagar factura", "needsAction");
+
+        List<TaskCompletionResultDto> results = tasksService.markTasksComplete(List.of(
+                TaskCompletionRequest.builder().taskListId(listId).taskId(taskId).build(),
+                TaskCompletionRequest.builder().taskListId(listId).taskId("missing").build(),
+                TaskCompletionRequest.builder().taskListId(listId).taskId(otherTaskId).build()), TOKEN);
+
+        assertThat(google.getRequests()).singleElement()
+                .extracting(GenericUrl::getRawPath)
+                .isEqualTo("/batch");
+        assertThat(results).extracting(TaskCompletionResultDto::isSuccess).containsExactly(true, false, true);
+        assertThat(results.get(1).getStatus()).isEqualTo(404);
+        assertThat(google.getTask(listId, otherTaskId).getStatus()).isEqualTo("completed");
+    }
+}
@@ -0,0 +1,75 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.exception.GoogleApiException;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@FakeGoogleTest
+class TasksServiceConcurrentFetchTest {
+
+    private static final String TOKEN = "concurrent-token";
+
+    // google.tasks.fetch.per-request-parallelism por defecto
+    private static final int WINDOW = 8;
+
+    @Autowired
+    private TasksService tasksService;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    @Test
+    void keepsGoogleOrderEvenWhenLaterListsFinishFirst() {
+        List<String> listIds = addTaskLists(6);
+        for (int i = 0; i < listIds.size(); i++) {
+            google.setTaskListLatency(listIds.get(i), Duration.ofMillis((listIds.size() - i) * 30L));
+        }
+
+        List<TaskListDto> taskLists = tasksService.listTasks(TOKEN);
+
+        assertThat(taskLists).extracting(TaskListDto::getId).containsExactlyElementsOf(listIds);
+        assertThat(taskLists).allSatisfy(taskList -> assertThat(taskList.getTasks()).hasSize(1));
+    }
+
+    @Test
+    void neverHasMoreListsInFlightThanTheWindow() {
+        List<String> listIds = addTaskLists(WINDOW * 3);
+        listIds.forEach(listId -> google.setTaskListLatency(listId, Duration.ofMillis(40)));
+
+        assertThat(tasksService.listTasks(TOKEN)).hasSize(listIds.size());
+
+        assertThat(google.maxConcurrentRequests()).isBetween(2, WINDOW);
+    }
+
+    @Test
+    void failFastAbortsWithoutAskingForTheListsBeyondTheWindow() {
+        List<String> listIds = addTaskLists(WINDOW * 3);
+        google.failTaskList(listIds.get(0));
+        listIds.subList(1, listIds.size()).forEach(listId -> google.setTaskListLatency(listId, Duration.ofMillis(200)));
+
+        assertThatThrownBy(() -> tasksService.listTasks(TOKEN)).isInstanceOf(GoogleApiException.class);
+
+        assertThat(listIds.subList(WINDOW, listIds.size()))
+                .allSatisfy(listId -> assertThat(google.requestsTo("/lists/" + listId + "/tasks")).isEmpty());
+    }
+
+    private List<String> addTaskLists(int count) {
+        List<String> listIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String listId = google.addTaskList("Lista " + i);
+            google.addTask(listId, "Tarea " + i, "needsAction");
+            listIds.add(listId);
+        }
+        return listIds;
+    }
+}
@@ -0,0 +1,98 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.services.tasks.model.Task;
+import com.microservicios.tasks.dto.TaskDto;
+import com.microservicios.tasks.dto.TaskFilter;
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.dto.TaskQuery;
+import com.microservicios.tasks.exception.InvalidQueryException;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@FakeGoogleTest
+class TasksServiceFilterTest {
+
+    private static final String TOKEN = "filter-token";
+
+    @Autowired
+    private TasksService tasksService;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    private String listId;
+
+    @BeforeEach
+    void setUp() {
+        listId = google.addTaskList("Trabajo");
+        google.addTask(listId, task("Preparar demo", "needsAction", "2024-05-10T00:00:00.000Z", null));
+        google.addTask(listId, task("Enviar informe", "needsAction", "2024-05-07T00:00:00.000Z", null));
+        google.addTask(listId, task("Renovar dominio", "needsAction", "2024-06-01T00:00:00.000Z", null));
+        google.addTask(listId, task("Ordenar correo", "needsAction", null, null));
+        google.addTask(listId, task("Revisar contrato", "completed", "2024-05-08T00:00:00.000Z", "2024-05-03T10:00:00.000Z"));
+        google.addTask(listId, task("Llamar a proveedor", "completed", null, "2024-04-20T09:00:00.000Z")
+                .setHidden(Boolean.TRUE));
+    }
+
+    @Test
+    void openTasksDueThisWeekAreFilteredByGoogleAndSortedByDueDate() {
+        TaskQuery query = TaskQuery.parse("title", null,
+                TaskFilter.parse("needsAction", "2024-05-06", "2024-05-12", null, null), "dueDate");
+
+        List<TaskDto> tasks = tasksService.listTasks(TOKEN, null, query).get(0).getTasks();
+
+        assertThat(tasks).extracting(TaskDto::getTitle).containsExactly("Enviar informe", "Preparar demo");
+        assertThat(tasks).extracting(TaskDto::getDueDate).containsOnlyNulls();
+        GenericUrl request = google.requestsTo("/lists/" + listId + "/tasks").get(0);
+        assertThat(request.getFirst("showCompleted")).isEqualTo("false");
+        assertThat(request.getFirst("dueMin")).isEqualTo("2024-05-06T00:00:00Z");
+        assertThat(request.getFirst("dueMax")).isEqualTo("2024-05-12T23:59:59.999Z");
+        // El estado y el vencimiento no se devuelven, pero hacen falta para filtrar y ordenar
+        assertThat(request.getFirst("fields")).isEqualTo("nextPageToken,items(title,status,due)");
+    }
+
+    @Test
+    void completedTasksIncludeTheOnesHiddenByGoogleApps() {
+        TaskQuery query = TaskQuery.parse(null, null, TaskFilter.parse("completed", null, null, null, null), "-title");
+
+        List<TaskDto> tasks = tasksService.listTasks(TOKEN, null, query).get(0).getTasks();
+
+        assertThat(tasks).extracting(TaskDto::getTitle).containsExactly("Revisar contrato", "Llamar a proveedor");
+        GenericUrl request = google.requestsTo("/lists/" + listId + "/tasks").get(0);
+        assertThat(request.getFirst("showHidden")).isEqualTo("true");
+        assertThat(request.getFirst("completedMin")).isEqualTo("1970-01-01T00:00:00Z");
+    }
+
+    @Test
+    void sortingWithALimitConsidersTheWholeList() {
+        TaskQuery query = TaskQuery.parse("title", null, TaskFilter.none(), "title");
+
+        TaskListDto taskList = tasksService.listTasks(TOKEN, 2, query).get(0);
+
+        assertThat(taskList.getTasks()).extracting(TaskDto::getTitle).containsExactly("Enviar informe", "Ordenar correo");
+        assertThat(taskList.getNextPageToken()).isNull();
+        assertThatThrownBy(() -> tasksService.listTaskPage(TOKEN, listId, "2", 2, query))
+                .isInstanceOf(InvalidQueryException.class);
+    }
+
+    @Test
+    void summaryCountsOnlyTheFilteredTasks() {
+        TaskQuery query = TaskQuery.parse(null, "summary",
+                TaskFilter.parse(null, null, null, "2024-05-01", "2024-05-31"), null);
+
+        assertThat(tasksService.listTasks(TOKEN, null, query).get(0).getTaskCount()).isEqualTo(1);
+    }
+
+    private static Task task(String title, String status, String due, String completed) {
+        return new Task().setTitle(title).setStatus(status).setDue(due).setCompleted(completed);
+    }
+}
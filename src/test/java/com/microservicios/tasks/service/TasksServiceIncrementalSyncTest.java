@@ -0,0 +1,148 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.services.tasks.model.Task;
+import com.microservicios.tasks.dto.TaskChangesDto;
+import com.microservicios.tasks.dto.TaskDto;
+import com.microservicios.tasks.dto.TaskListChangesDto;
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@FakeGoogleTest
+@TestPropertySource(properties = {
+        "google.tasks.sync.enabled=true",
+        "google.tasks.sync.clock-skew=0s",
+        "google.tasks.max-results=2"
+})
+class TasksServiceIncrementalSyncTest {
+
+    @Autowired
+    private TasksService tasksService;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    private String listId;
+    private String firstTaskId;
+    private String secondTaskId;
+    private String thirdTaskId;
+
+    @BeforeEach
+    void setUp() {
+        listId = google.addTaskList("Trabajo");
+        firstTaskId = google.addTask(listId, "Primera", "needsAction");
+        secondTaskId = google.addTask(listId, "Segunda", "needsAction");
+        thirdTaskId = google.addTask(listId, "Tercera", "completed");
+    }
+
+    @Test
+    void firstSyncDownloadsEveryPageWithoutUpdatedMin() {
+        List<TaskListDto> taskLists = tasksService.listTasks(uniqueToken());
+
+        assertThat(taskLists).singleElement()
+                .satisfies(taskList -> assertThat(taskList.getTasks()).hasSize(3));
+        assertThat(google.requestsTo("/tasks"))
+                .hasSize(2)
+                .allSatisfy(url -> assertThat(url.getFirst("updatedMin")).isNull());
+    }
+
+    @Test
+    void laterSyncsOnlyAskForChangesAndMergeThemIntoTheSnapshot() throws InterruptedException {
+        String token = uniqueToken();
+        tasksService.listTasks(token);
+        google.getRequests().clear();
+
+        Thread.sleep(5);
+        google.updateTask(listId, firstTaskId, "Primera (editada)");
+        google.deleteTask(listId, secondTaskId);
+
+        List<TaskListDto> taskLists = tasksService.listTasks(token);
+
+        List<GenericUrl> taskRequests = google.requestsTo("/tasks");
+        assertThat(taskRequests).hasSize(1);
+        assertThat(taskRequests.get(0).getFirst("updatedMin")).isNotNull();
+        assertThat(taskRequests.get(0).getFirst("showDeleted")).isEqualTo("true");
+        assertThat(taskLists.get(0).getTasks())
+                .extracting(TaskDto::getTitle)
+                .containsExactly("Primera (editada)", "Tercera");
+    }
+
+    @Test
+    void mergedChangesKeepGooglesPositionOrder() throws InterruptedException {
+        String token = uniqueToken();
+        tasksService.listTasks(token);
+
+        Thread.sleep(5);
+        google.moveTask(listId, thirdTaskId, null, 500);
+        google.addTask(listId, new Task().setTitle("Subtarea").setStatus("needsAction").setParent(firstTaskId));
+
+        List<TaskListDto> taskLists = tasksService.listTasks(token);
+
+        assertThat(taskLists.get(0).getTasks())
+                .extracting(TaskDto::getTitle)
+                .containsExactly("Tercera", "Primera", "Subtarea", "Segunda");
+    }
+
+    @Test
+    void changesReturnOnlyTheDeltaSinceTheCursor() throws InterruptedException {
+        String token = uniqueToken();
+        TaskChangesDto initial = tasksService.listChanges(token, null);
+
+        assertThat(initial.getTaskLists()).singleElement()
+                .satisfies(changes -> {
+                    assertThat(changes.isFull()).isTrue();
+                    assertThat(changes.getUpserted()).hasSize(3);
+                });
+
+        Thread.sleep(5);
+        google.updateTask(listId, firstTaskId, "Primera (editada)");
+        google.deleteTask(listId, secondTaskId);
+
+        TaskChangesDto delta = tasksService.listChanges(token, Instant.parse(initial.getCursor()));
+
+        TaskListChangesDto listChanges = delta.getTaskLists().get(0);
+        assertThat(listChanges.isFull()).isFalse();
+        assertThat(listChanges.getUpserted()).extracting(TaskDto::getId).containsExactly(firstTaskId);
+        assertThat(listChanges.getRemovedTaskIds()).containsExactly(secondTaskId);
+    }
+
+    @Test
+    void changesReportRemovedTaskLists() {
+        String token = uniqueToken();
+        String otherListId = google.addTaskList("Casa");
+        TaskChangesDto initial = tasksService.listChanges(token, null);
+        assertThat(initial.getTaskLists()).hasSize(2);
+
+        google.removeTaskList(otherListId);
+        TaskChangesDto delta = tasksService.listChanges(token, Instant.parse(initial.getCursor()));
+
+        assertThat(delta.getTaskLists()).extracting(TaskListChangesDto::getId).containsExactly(listId);
+        assertThat(delta.getRemovedTaskListIds()).containsExactly(otherListId);
+    }
+
+    @Test
+    void cursorOlderThanTheSnapshotFallsBackToTheFullList() {
+        String token = uniqueToken();
+        Instant beforeFirstSync = Instant.now().minusSeconds(60);
+        tasksService.listChanges(token, null);
+
+        TaskChangesDto delta = tasksService.listChanges(token, beforeFirstSync);
+
+        assertThat(delta.getTaskLists().get(0).isFull()).isTrue();
+        assertThat(delta.getTaskLists().get(0).getUpserted()).hasSize(3);
+    }
+
+    private static String uniqueToken() {
+        return "token-" + System.nanoTime();
+    }
+}
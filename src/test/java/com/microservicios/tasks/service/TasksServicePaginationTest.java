@@ -0,0 +1,89 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.api.client.http.GenericUrl;
+import com.microservicios.tasks.dto.TaskDto;
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.dto.TaskPageDto;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@FakeGoogleTest
+class TasksServicePaginationTest {
+
+    private static final String TOKEN = "pagination-token";
+
+    @Autowired
+    private TasksService tasksService;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    private String listId;
+
+    @BeforeEach
+    void setUp() {
+        // Google devuelve menos de lo pedido: el servicio tiene que seguir nextPageToken
+        google.setMaxPageSize(3);
+        listId = google.addTaskList("Trabajo");
+        google.addTasks(listId, 7);
+    }
+
+    @Test
+    void followsNextPageTokenThroughEveryPageOfListsAndTasks() {
+        List<String> listIds = new ArrayList<>(List.of(listId));
+        for (int i = 0; i < 7; i++) {
+            listIds.add(google.addTaskList("Lista " + i));
+        }
+
+        List<TaskListDto> taskLists = tasksService.listTasks(TOKEN);
+
+        assertThat(taskLists).extracting(TaskListDto::getId).containsExactlyElementsOf(listIds);
+        assertThat(taskLists.get(0).getTasks()).extracting(TaskDto::getTitle).containsExactly(
+                "Tarea 1", "Tarea 2", "Tarea 3", "Tarea 4", "Tarea 5", "Tarea 6", "Tarea 7");
+        assertThat(taskLists.get(0).getNextPageToken()).isNull();
+        assertThat(pageTokens(google.requestsTo("/users/@me/lists"))).containsExactly(null, "3", "6");
+        assertThat(pageTokens(google.requestsTo("/lists/" + listId + "/tasks"))).containsExactly(null, "3", "6");
+    }
+
+    @Test
+    void prefetchesTheFollowingPagesOnThePrefetchPool() {
+        TaskPageDto page = tasksService.listTaskPage(TOKEN, listId, null, null);
+
+        assertThat(page.getTasks()).hasSize(7);
+        List<GenericUrl> requests = google.requestsTo("/lists/" + listId + "/tasks");
+        assertThat(pageTokens(requests)).containsExactly(null, "3", "6");
+        assertThat(google.threadOf(requests.get(0))).isEqualTo(Thread.currentThread().getName());
+        assertThat(requests.subList(1, requests.size()))
+                .allSatisfy(request -> assertThat(google.threadOf(request)).startsWith("tasks-prefetch-"));
+    }
+
+    @Test
+    void aLimitInsideAPageLeavesTheExactTokenOfTheNextTask() {
+        TaskPageDto first = tasksService.listTaskPage(TOKEN, listId, null, 5);
+
+        assertThat(first.getTasks()).extracting(TaskDto::getTitle)
+                .containsExactly("Tarea 1", "Tarea 2", "Tarea 3", "Tarea 4", "Tarea 5");
+        assertThat(first.getNextPageToken()).isEqualTo("5");
+        // La segunda página se pide ya ajustada a lo que falta, y no se adelanta ninguna más
+        List<GenericUrl> requests = google.requestsTo("/lists/" + listId + "/tasks");
+        assertThat(requests).extracting(request -> request.getFirst("maxResults")).containsExactly("5", "2");
+
+        TaskPageDto second = tasksService.listTaskPage(TOKEN, listId, first.getNextPageToken(), 5);
+
+        assertThat(second.getTasks()).extracting(TaskDto::getTitle).containsExactly("Tarea 6", "Tarea 7");
+        assertThat(second.getNextPageToken()).isNull();
+    }
+
+    private static List<Object> pageTokens(List<GenericUrl> requests) {
+        return Arrays.asList(requests.stream().map(request -> request.getFirst("pageToken")).toArray());
+    }
+}
@@ -0,0 +1,70 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@FakeGoogleTest
+@TestPropertySource(properties = "google.tasks.fetch.failure-mode=PARTIAL")
+class TasksServicePartialFetchTest {
+
+    private static final String TOKEN = "partial-token";
+
+    @Autowired
+    private TasksService tasksService;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    private final List<String> listIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        listIds.clear();
+        for (int i = 0; i < 4; i++) {
+            String listId = google.addTaskList("Lista " + i);
+            google.addTask(listId, "Tarea " + i, "needsAction");
+            listIds.add(listId);
+        }
+    }
+
+    @Test
+    void returnsTheFailedListWithItsErrorInItsPlace() {
+        google.failTaskList(listIds.get(1));
+        // La lista siguiente termina antes que la que falla: el orden no depende de quién acaba primero
+        google.setTaskListLatency(listIds.get(1), Duration.ofMillis(50));
+
+        List<TaskListDto> taskLists = tasksService.listTasks(TOKEN);
+
+        assertThat(taskLists).extracting(TaskListDto::getId).containsExactlyElementsOf(listIds);
+        assertThat(taskLists.get(1).getError()).isNotBlank();
+        assertThat(taskLists.get(1).getTitle()).isEqualTo("Lista 1");
+        assertThat(taskLists.get(1).getTasks()).isEmpty();
+        assertThat(List.of(taskLists.get(0), taskLists.get(2), taskLists.get(3))).allSatisfy(taskList -> {
+            assertThat(taskList.getError()).isNull();
+            assertThat(taskList.getTasks()).hasSize(1);
+        });
+    }
+
+    @Test
+    void streamsEveryListEvenIfAllOfThemFail() {
+        listIds.forEach(google::failTaskList);
+        List<TaskListDto> streamed = new ArrayList<>();
+
+        int count = tasksService.streamTasks(TOKEN, null, streamed::add);
+
+        assertThat(count).isEqualTo(listIds.size());
+        assertThat(streamed).extracting(TaskListDto::getId).containsExactlyElementsOf(listIds);
+        assertThat(streamed).allSatisfy(taskList -> assertThat(taskList.getError()).isNotBlank());
+    }
+}
@@ -0,0 +1,92 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import com.microservicios.tasks.dto.TaskDto;
+import com.microservicios.tasks.dto.TaskListDto;
+import com.microservicios.tasks.dto.TaskPageDto;
+import com.microservicios.tasks.dto.TaskQuery;
+import com.microservicios.tasks.enums.TaskStatus;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@FakeGoogleTest
+class TasksServiceProjectionTest {
+
+    private static final String TOKEN = "projection-token";
+
+    @Autowired
+    private TasksService tasksService;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    private String listId;
+
+    @BeforeEach
+    void setUp() {
+        listId = google.addTaskList("Trabajo");
+        google.addTask(listId, "Enviar informe", "needsAction");
+        google.addTask(listId, "Revisar contrato", "completed");
+        google.addTask(listId, "Llamar a proveedor", "completed");
+    }
+
+    @Test
+    void returnsOnlyTheRequestedFieldsAndAsksGoogleForNothingElse() {
+        List<TaskListDto> taskLists = tasksService.listTasks(TOKEN, null, TaskQuery.parse("id,title", null));
+
+        assertThat(taskLists.get(0).getTasks())
+                .extracting(TaskDto::getTitle, TaskDto::getStatus, TaskDto::getNotes, TaskDto::getDueDate)
+                .containsExactly(
+                        Tuple.tuple("Enviar informe", null, null, null),
+                        Tuple.tuple("Revisar contrato", null, null, null),
+                        Tuple.tuple("Llamar a proveedor", null, null, null));
+        assertThat(google.requestsTo("/lists/" + listId + "/tasks"))
+                .allSatisfy(url -> assertThat(url.getFirst("fields")).isEqualTo("nextPageToken,items(id,title)"));
+        assertThat(google.requestsTo("/users/@me/lists"))
+                .allSatisfy(url -> assertThat(url.getFirst("fields")).isEqualTo("nextPageToken,items(id,title)"));
+    }
+
+    @Test
+    void summaryCountsTasksWithoutReturningThem() {
+        List<TaskListDto> taskLists = tasksService.listTasks(TOKEN, 1, TaskQuery.parse(null, "summary"));
+
+        TaskListDto summary = taskLists.get(0);
+        assertThat(summary.getTasks()).isNull();
+        assertThat(summary.getTaskCount()).isEqualTo(3);
+        assertThat(summary.getCompletedCount()).isEqualTo(2);
+        assertThat(google.requestsTo("/lists/" + listId + "/tasks"))
+                .allSatisfy(url -> assertThat(url.getFirst("fields")).isEqualTo("nextPageToken,items(status)"));
+    }
+
+    @Test
+    void theFullViewStillReturnsEveryField() {
+        TaskDto task = tasksService.listTasks(TOKEN, null).get(0).getTasks().get(0);
+
+        assertThat(task.getId()).isNotBlank();
+        assertThat(task.getStatus()).isEqualTo(TaskStatus.NEEDS_ACTION);
+        assertThat(task.getNotes()).isEmpty();
+    }
+
+    @Test
+    void clientLimitsNeverExceedTheConfiguredMaximum() {
+        // max-task-limit=50 en application-fake-google.properties
+        for (int i = 0; i < 57; i++) {
+            google.addTask(listId, "Tarea " + i, "needsAction");
+        }
+
+        TaskListDto taskList = tasksService.listTasks(TOKEN, 1_000_000).get(0);
+        TaskPageDto page = tasksService.listTaskPage(TOKEN, listId, null, 1_000_000);
+
+        assertThat(taskList.getTasks()).hasSize(50);
+        assertThat(taskList.getNextPageToken()).isNotNull();
+        assertThat(page.getTasks()).hasSize(50);
+        assertThat(page.getNextPageToken()).isNotNull();
+    }
+}
@@ -0,0 +1,63 @@
+package com.microservicios.tasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.microservicios.tasks.exception.InvalidTokenException;
+import com.microservicios.tasks.support.FakeGoogleTasksTransport;
+import com.microservicios.tasks.support.FakeGoogleTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@FakeGoogleTest
+class TokenValidatorTest {
+
+    @Autowired
+    private TokenValidator tokenValidator;
+
+    @Autowired
+    private FakeGoogleTasksTransport google;
+
+    @Test
+    void validatesEachTokenOnceWhileItIsCached() {
+        String first = tokenValidator.userKey("cached-token");
+        String second = tokenValidator.userKey("cached-token");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(google.requestsTo("/tokeninfo")).hasSize(1);
+    }
+
+    @Test
+    void tokensOfTheSameUserShareTheUserKey() {
+        google.registerToken("refreshed-token-1", "user-42");
+        google.registerToken("refreshed-token-2", "user-42");
+        google.registerToken("other-user-token", "user-7");
+
+        String userKey = tokenValidator.userKey("refreshed-token-1");
+
+        assertThat(tokenValidator.userKey("refreshed-token-2")).isEqualTo(userKey);
+        assertThat(tokenValidator.userKey("other-user-token")).isNotEqualTo(userKey);
+        assertThat(userKey).doesNotContain("user-42").doesNotContain("refreshed-token-1");
+    }
+
+    @Test
+    void rejectedTokensFailFastAndAreRemembered() {
+        google.revokeToken("revoked-token");
+
+        assertThatThrownBy(() -> tokenValidator.validate("revoked-token")).isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> tokenValidator.validate("revoked-token")).isInstanceOf(InvalidTokenException.class);
+
+        assertThat(google.requestsTo("/tokeninfo")).hasSize(1);
+    }
+
+    @Test
+    void duringATokenInfoOutageTheUnverifiedResultIsReused() {
+        google.setTokenInfoUnavailable(true);
+
+        String userKey = tokenValidator.validate("unverified-token").userKey();
+
+        assertThat(tokenValidator.userKey("unverified-token")).isEqualTo(userKey);
+        assertThat(tokenValidator.validate("unverified-token").userKey()).isEqualTo(userKey);
+        assertThat(google.requestsTo("/tokeninfo")).hasSize(1);
+    }
+}
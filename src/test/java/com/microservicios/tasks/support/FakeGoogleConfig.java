@@ -0,0 +1,33 @@
+package com.microservicios.tasks.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * Sustituye el transporte HTTP de Google por un {@link FakeGoogleTasksTransport} en memoria.
+ * Se usa a través de {@link FakeGoogleTest}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class FakeGoogleConfig {
+
+    @Bean
+    @Primary
+    FakeGoogleTasksTransport fakeGoogleTasksTransport() {
+        return new FakeGoogleTasksTransport();
+    }
+
+    /**
+     * El contexto (y con él el transporte falso) se comparte entre clases de prueba: cada prueba empieza
+     * con Google vacío.
+     */
+    public static class ResetListener extends AbstractTestExecutionListener {
+
+        @Override
+        public void beforeTestMethod(TestContext testContext) {
+            testContext.getApplicationContext().getBean(FakeGoogleTasksTransport.class).reset();
+        }
+    }
+}
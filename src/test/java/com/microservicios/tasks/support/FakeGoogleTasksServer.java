@@ -0,0 +1,215 @@
+package com.microservicios.tasks.support;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.services.tasks.model.Task;
+import com.microservicios.tasks.enums.GoogleOperation;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Servidor HTTP real delante de un {@link FakeGoogleTasksTransport}, para probar el servicio con su transporte
+ * de producción (pool de conexiones incluido): basta con apuntar {@code google.tasks.root-url} a
+ * {@link #rootUrl()} y {@code google.auth.token-validation.url} a {@link #tokenInfoUrl()}.
+ * <p>
+ * Además de la latencia, se puede ajustar la proporción de llamadas que fallan con 503 y el tamaño máximo
+ * de página (Google no devuelve más de 100 elementos por página aunque se pidan más). Cuenta las llamadas
+ * recibidas por operación.
+ */
+public class FakeGoogleTasksServer implements Closeable {
+
+    private static final String OTHER = "other";
+
+    static {
+        // Sin TCP_NODELAY, cabeceras y cuerpo en escrituras separadas suman ~40 ms de ACK retardado a cada llamada
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final FakeGoogleTasksTransport google;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile int maxPageSize = 100;
+
+    private FakeGoogleTasksServer(FakeGoogleTasksTransport google) throws IOException {
+        this.google = google;
+        // Las llamadas más lentas no pueden hacer esperar a las demás: un hilo por conexión
+        this.executor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public static FakeGoogleTasksServer start(FakeGoogleTasksTransport google) throws IOException {
+        FakeGoogleTasksServer fake = new FakeGoogleTasksServer(google);
+        // La lista de peticiones del transporte es para las pruebas funcionales; aquí bastan los contadores
+        google.setRecordRequests(false);
+        fake.server.start();
+        return fake;
+    }
+
+    public String rootUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public String tokenInfoUrl() {
+        return rootUrl() + "tokeninfo";
+    }
+
+    public FakeGoogleTasksTransport google() {
+        return google;
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Crea {@code taskLists} listas de {@code tasksPerList} tareas, con mezcla de estados, fechas y notas.
+     *
+     * @return los ids de las tareas de cada lista
+     */
+    public Map<String, List<String>> populate(int taskLists, int tasksPerList) {
+        Map<String, List<String>> ids = new LinkedHashMap<>();
+        for (int list = 0; list < taskLists; list++) {
+            String listId = google.addTaskList("Lista " + list);
+            List<String> taskIds = new ArrayList<>(tasksPerList);
+            for (int i = 0; i < tasksPerList; i++) {
+                Task task = new Task()
+                        .setTitle("Tarea " + list + "." + i)
+                        .setStatus(i % 4 == 0 ? "completed" : "needsAction")
+                        .setDue(i % 3 == 0 ? null : "2026-05-" + (10 + i % 18) + "T00:00:00.000Z")
+                        .setNotes(i % 2 == 0 ? "Revisar el documento compartido antes de la reunión." : null);
+                taskIds.add(google.addTask(listId, task));
+            }
+            ids.put(listId, taskIds);
+        }
+        return ids;
+    }
+
+    /**
+     * Borra todas las listas, para volver a poblar con otro tamaño sin reiniciar el servidor.
+     */
+    public void clear() {
+        google.clearTaskLists();
+    }
+
+    /**
+     * Llamadas recibidas por operación ({@link GoogleOperation#getValue()}), incluidas las que fallaron.
+     */
+    public Map<String, Long> callCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        calls.forEach((operation, count) -> counts.put(operation, count.sum()));
+        return counts;
+    }
+
+    public void resetCallCounts() {
+        calls.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            GenericUrl url = new GenericUrl(rootUrl() + exchange.getRequestURI().toString().substring(1));
+            String operation = operation(method, url);
+            calls.computeIfAbsent(operation, ignored -> new LongAdder()).increment();
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+            if (!operation.equals(GoogleOperation.TOKEN_INFO.getValue()) && errorRate > 0
+                    && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                respond(exchange, 503, "application/json; charset=UTF-8",
+                        "{\"error\":{\"code\":503,\"message\":\"fake error\"}}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (url.getFirst("maxResults") != null) {
+                url.set("maxResults", Math.min(maxPageSize, Integer.parseInt((String) url.getFirst("maxResults"))));
+            }
+
+            LowLevelHttpRequest request = google.buildRequest(method, url.build());
+            String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+            if (ifMatch != null) {
+                request.addHeader("If-Match", ifMatch);
+            }
+            request.setContentType(exchange.getRequestHeaders().getFirst("Content-Type"));
+            // El cliente de Google comprime los cuerpos; el transporte falso los descomprime
+            request.setContentEncoding(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+            request.setStreamingContent(out -> out.write(body));
+            LowLevelHttpResponse response = request.execute();
+            try (InputStream content = response.getContent()) {
+                respond(exchange, response.getStatusCode(), response.getContentType(), content.readAllBytes());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String operation(String method, GenericUrl url) {
+        String path = url.getRawPath();
+        if (path.startsWith("/batch")) {
+            return GoogleOperation.BATCH.getValue();
+        }
+        if (path.equals("/tokeninfo")) {
+            return GoogleOperation.TOKEN_INFO.getValue();
+        }
+        if (path.endsWith("/users/@me/lists") && method.equals("GET")) {
+            return GoogleOperation.LIST_TASK_LISTS.getValue();
+        }
+        if (path.endsWith("/tasks") && method.equals("GET")) {
+            return GoogleOperation.LIST_TASKS.getValue();
+        }
+        if (method.equals("PATCH")) {
+            return GoogleOperation.PATCH_TASK.getValue();
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,472 @@
+package com.microservicios.tasks.support;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpMediaType;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.tasks.model.Task;
+import com.google.api.services.tasks.model.TaskList;
+import com.google.api.services.tasks.model.TaskLists;
+import com.google.api.services.tasks.model.Tasks;
+
+/**
+ * Implementación en memoria de la API de Google Tasks a nivel de transporte HTTP.
+ * Soporta paginación, updatedMin/showDeleted/showHidden/showCompleted, los rangos dueMin/dueMax y
+ * completedMin/completedMax (inclusivos), get/update/patch de tareas, posiciones ({@link #moveTask}),
+ * partial responses en los listados ({@code fields=nextPageToken,items(id,title)})
+ * peticiones batch (multipart/mixed), y el endpoint tokeninfo (cualquier token es válido salvo los revocados,
+ * que la API de Tasks también rechaza con 401).
+ * Con {@link #setLatency} cada llamada tarda lo indicado, como la red hasta Google, y con
+ * {@link #setUnavailable} la API de Tasks responde 503 como en una caída ({@link #setTokenInfoUnavailable}, tokeninfo).
+ * Por lista, {@link #setTaskListLatency} hace más lenta la consulta de sus tareas y {@link #failTaskList} la hace
+ * fallar con 500; {@link #maxConcurrentRequests} dice cuántas llamadas llegaron a estar en curso a la vez.
+ * Con {@link #setMaxPageSize} las páginas son más pequeñas de lo pedido, como hace Google por encima de 100
+ * elementos, y {@link #threadOf} dice desde qué hilo se hizo cada petición registrada.
+ */
+public class FakeGoogleTasksTransport extends MockHttpTransport {
+
+    private static final GsonFactory JSON = GsonFactory.getDefaultInstance();
+
+    private final Map<String, FakeTaskList> taskLists = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<GenericUrl> requests = new CopyOnWriteArrayList<>();
+    private final Map<GenericUrl, String> requestThreads = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Map<String, String> tokenSubjects = new ConcurrentHashMap<>();
+    private final Set<String> revokedTokens = ConcurrentHashMap.newKeySet();
+    private final Map<String, Duration> taskListLatencies = new ConcurrentHashMap<>();
+    private final Set<String> failingTaskLists = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile boolean unavailable;
+    private volatile boolean tokenInfoUnavailable;
+    private volatile boolean recordRequests = true;
+    private volatile int maxPageSize = 100;
+
+    public void reset() {
+        taskLists.clear();
+        requests.clear();
+        requestThreads.clear();
+        tokenSubjects.clear();
+        revokedTokens.clear();
+        taskListLatencies.clear();
+        failingTaskLists.clear();
+        maxInFlight.set(0);
+        latency = Duration.ZERO;
+        unavailable = false;
+        tokenInfoUnavailable = false;
+        recordRequests = true;
+        maxPageSize = 100;
+    }
+
+    public void setUnavailable(boolean unavailable) {
+        this.unavailable = unavailable;
+    }
+
+    public void setTokenInfoUnavailable(boolean tokenInfoUnavailable) {
+        this.tokenInfoUnavailable = tokenInfoUnavailable;
+    }
+
+    // En pruebas de carga la lista de peticiones crecería sin límite
+    public void setRecordRequests(boolean recordRequests) {
+        this.recordRequests = recordRequests;
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public void setTaskListLatency(String taskListId, Duration latency) {
+        taskListLatencies.put(taskListId, latency);
+    }
+
+    public void failTaskList(String taskListId) {
+        failingTaskLists.add(taskListId);
+    }
+
+    public int maxConcurrentRequests() {
+        return maxInFlight.get();
+    }
+
+    public void registerToken(String accessToken, String subject) {
+        tokenSubjects.put(accessToken, subject);
+    }
+
+    public void revokeToken(String accessToken) {
+        revokedTokens.add(accessToken);
+    }
+
+    public String addTaskList(String title) {
+        String id = "list-" + nextId.incrementAndGet();
+        taskLists.put(id, new FakeTaskList(id, title));
+        return id;
+    }
+
+    public void removeTaskList(String taskListId) {
+        taskLists.remove(taskListId);
+    }
+
+    public void clearTaskLists() {
+        taskLists.clear();
+    }
+
+    public String addTask(String taskListId, String title, String status) {
+        return addTask(taskListId, new Task().setTitle(title).setStatus(status));
+    }
+
+    // Tareas pendientes "Tarea 1".."Tarea n", para probar la paginación
+    public List<String> addTasks(String taskListId, int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ids.add(addTask(taskListId, "Tarea " + i, "needsAction"));
+        }
+        return ids;
+    }
+
+    public String addTask(String taskListId, Task task) {
+        Task stored = task.clone().setId("task-" + nextId.incrementAndGet());
+        taskLists.get(taskListId).put(stored);
+        return stored.getId();
+    }
+
+    // Como en Google, cambia la posición (y el padre) y la fecha de modificación, no el orden del listado
+    public void moveTask(String taskListId, String taskId, String parent, long position) {
+        FakeTaskList taskList = taskLists.get(taskListId);
+        taskList.put(taskList.get(taskId).clone().setParent(parent).setPosition(FakeTaskList.position(position)));
+    }
+
+    public void updateTask(String taskListId, String taskId, String title) {
+        FakeTaskList taskList = taskLists.get(taskListId);
+        taskList.put(taskList.get(taskId).clone().setTitle(title));
+    }
+
+    public void deleteTask(String taskListId, String taskId) {
+        FakeTaskList taskList = taskLists.get(taskListId);
+        taskList.put(taskList.get(taskId).clone().setDeleted(Boolean.TRUE));
+    }
+
+    public Task getTask(String taskListId, String taskId) {
+        return taskLists.get(taskListId).get(taskId);
+    }
+
+    public List<GenericUrl> getRequests() {
+        return requests;
+    }
+
+    public List<GenericUrl> requestsTo(String pathSuffix) {
+        return requests.stream()
+                .filter(url -> url.getRawPath().endsWith(pathSuffix))
+                .collect(Collectors.toList());
+    }
+
+    // Nombre del hilo que hizo la petición (una de las devueltas por getRequests o requestsTo)
+    public String threadOf(GenericUrl request) {
+        return requestThreads.get(request);
+    }
+
+    @Override
+    public LowLevelHttpRequest buildRequest(String method, String url) {
+        return new MockLowLevelHttpRequest(url) {
+            @Override
+            public LowLevelHttpResponse execute() throws IOException {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    return respond();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+
+            private LowLevelHttpResponse respond() throws IOException {
+                GenericUrl genericUrl = new GenericUrl(url);
+                if (recordRequests) {
+                    requestThreads.put(genericUrl, Thread.currentThread().getName());
+                    requests.add(genericUrl);
+                }
+                pause(latency);
+                String authorization = getFirstHeaderValue("Authorization");
+                if (authorization != null && revokedTokens.contains(authorization.substring("Bearer ".length()))) {
+                    return error(401);
+                }
+                if (genericUrl.getRawPath().startsWith("/batch")) {
+                    return batch(getContentType(), getContentAsString());
+                }
+                return handle(method, genericUrl, getContentAsString(), getFirstHeaderValue("If-Match"));
+            }
+        };
+    }
+
+    // Cada parte es una petición HTTP completa; las respuestas van en el mismo orden
+    private LowLevelHttpResponse batch(String contentType, String body) throws IOException {
+        if (unavailable) {
+            return error(503);
+        }
+        String boundary = "--" + new HttpMediaType(contentType).getParameter("boundary");
+        StringBuilder response = new StringBuilder();
+        for (String part : body.split(Pattern.quote(boundary))) {
+            String[] sections = part.split("\r\n\r\n", 3);
+            if (sections.length < 2 || sections[0].isBlank()) {
+                continue;
+            }
+            String[] requestLine = sections[1].split("\r\n", 2)[0].split(" ");
+            String content = sections.length == 3 ? sections[2].trim() : "";
+            MockLowLevelHttpResponse partResponse = (MockLowLevelHttpResponse)
+                    handle(requestLine[0], new GenericUrl(requestLine[1]), content, null);
+            response.append(boundary).append("\r\n")
+                    .append("Content-Type: application/http\r\n\r\n")
+                    .append("HTTP/1.1 ").append(partResponse.getStatusCode()).append(" OK\r\n")
+                    .append("Content-Type: application/json; charset=UTF-8\r\n\r\n")
+                    .append(new String(partResponse.getContent().readAllBytes(), StandardCharsets.UTF_8))
+                    .append("\r\n");
+        }
+        response.append(boundary).append("--\r\n");
+        return new MockLowLevelHttpResponse()
+                .setContentType("multipart/mixed; boundary=" + boundary.substring(2))
+                .setContent(response.toString());
+    }
+
+    private LowLevelHttpResponse handle(String method, GenericUrl url, String body, String ifMatch) throws IOException {
+        List<String> path = url.getPathParts().stream()
+                .filter(part -> part != null && !part.isEmpty())
+                .collect(Collectors.toList());
+        if (path.equals(List.of("tokeninfo"))) {
+            return tokenInfo(body);
+        }
+        if (unavailable) {
+            return error(503);
+        }
+        // tasks/v1/users/@me/lists | tasks/v1/lists/{id}/tasks | tasks/v1/lists/{id}/tasks/{taskId}
+        List<String> route = path.subList(2, path.size());
+
+        if (route.equals(Arrays.asList("users", "@me", "lists")) && method.equals("GET")) {
+            return json(listTaskLists(url, maxPageSize));
+        }
+        if (route.size() >= 3 && route.get(0).equals("lists") && route.get(2).equals("tasks")) {
+            FakeTaskList taskList = taskLists.get(route.get(1));
+            if (taskList == null) {
+                return error(404);
+            }
+            if (route.size() == 3 && method.equals("GET")) {
+                pause(taskListLatencies.getOrDefault(taskList.id, Duration.ZERO));
+                if (failingTaskLists.contains(taskList.id)) {
+                    return error(500);
+                }
+                return json(partial(taskList.list(url, maxPageSize), url));
+            }
+            Task task = route.size() == 4 ? taskList.get(route.get(3)) : null;
+            if (task == null || Boolean.TRUE.equals(task.getDeleted())) {
+                return error(404);
+            }
+            switch (method) {
+                case "GET":
+                    return json(task);
+                case "PUT":
+                case "PATCH":
+                    if (ifMatch != null && !ifMatch.equals(task.getEtag())) {
+                        return error(412);
+                    }
+                    Task changes = JSON.fromString(body, Task.class);
+                    Task updated = task.clone();
+                    changes.forEach((field, value) -> {
+                        if (value != null) {
+                            updated.set(field, value);
+                        }
+                    });
+                    taskList.put(updated);
+                    return json(updated);
+                default:
+                    return error(405);
+            }
+        }
+        return error(404);
+    }
+
+    private LowLevelHttpResponse tokenInfo(String body) throws IOException {
+        if (tokenInfoUnavailable) {
+            return error(503);
+        }
+        String accessToken = URLDecoder.decode(body.substring(body.indexOf('=') + 1), StandardCharsets.UTF_8);
+        if (revokedTokens.contains(accessToken)) {
+            return new MockLowLevelHttpResponse()
+                    .setStatusCode(400)
+                    .setContentType("application/json; charset=UTF-8")
+                    .setContent("{\"error\":\"invalid_token\",\"error_description\":\"Invalid Value\"}");
+        }
+        GenericJson info = new GenericJson();
+        info.put("sub", tokenSubjects.getOrDefault(accessToken, "sub-" + accessToken));
+        info.put("scope", "https://www.googleapis.com/auth/tasks");
+        info.put("exp", String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()));
+        info.put("expires_in", "3600");
+        return json(info);
+    }
+
+    // Solo entiende la forma que usa el servicio: "nextPageToken,items(campo,campo)"
+    private static Tasks partial(Tasks page, GenericUrl url) {
+        String fields = (String) url.getFirst("fields");
+        if (fields == null || !fields.contains("items(") || page.getItems() == null) {
+            return page;
+        }
+        List<String> itemFields = Arrays.asList(
+                fields.substring(fields.indexOf("items(") + 6, fields.indexOf(')', fields.indexOf("items("))).split(","));
+        List<Task> items = page.getItems().stream()
+                .map(task -> {
+                    Task projected = new Task();
+                    itemFields.forEach(field -> {
+                        if (task.get(field) != null) {
+                            projected.set(field, task.get(field));
+                        }
+                    });
+                    return projected;
+                })
+                .collect(Collectors.toList());
+        return new Tasks().setItems(items).setNextPageToken(page.getNextPageToken());
+    }
+
+    private TaskLists listTaskLists(GenericUrl url, int maxPageSize) {
+        List<TaskList> items;
+        synchronized (taskLists) {
+            items = taskLists.values().stream()
+                    .map(taskList -> new TaskList().setId(taskList.id).setTitle(taskList.title))
+                    .collect(Collectors.toList());
+        }
+        Page<TaskList> page = Page.of(items, url, maxPageSize);
+        return new TaskLists().setItems(page.items).setNextPageToken(page.nextPageToken);
+    }
+
+    private static void pause(Duration duration) throws IOException {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Llamada interrumpida", e);
+        }
+    }
+
+    private static LowLevelHttpResponse json(Object content) throws IOException {
+        return new MockLowLevelHttpResponse()
+                .setContentType("application/json; charset=UTF-8")
+                .setContent(JSON.toString(content));
+    }
+
+    private static LowLevelHttpResponse error(int status) {
+        return new MockLowLevelHttpResponse()
+                .setStatusCode(status)
+                .setContentType("application/json; charset=UTF-8")
+                .setContent("{\"error\":{\"code\":" + status + ",\"message\":\"fake error\"}}");
+    }
+
+    private static final class FakeTaskList {
+        private final String id;
+        private final String title;
+        private final Map<String, Task> tasks = new LinkedHashMap<>();
+
+        private FakeTaskList(String id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+
+        private synchronized void put(Task task) {
+            if (task.getPosition() == null) {
+                // Con huecos entre posiciones para poder mover una tarea entre otras dos
+                task.setPosition(position((tasks.size() + 1) * 1000L));
+            }
+            task.setUpdated(Instant.now().toString());
+            task.setEtag("\"" + task.getId() + "/" + System.nanoTime() + "\"");
+            tasks.put(task.getId(), task);
+        }
+
+        private synchronized Task get(String taskId) {
+            return tasks.get(taskId);
+        }
+
+        private synchronized Tasks list(GenericUrl url, int maxPageSize) {
+            Instant updatedMin = url.getFirst("updatedMin") != null
+                    ? Instant.parse((String) url.getFirst("updatedMin")) : null;
+            boolean showDeleted = "true".equals(url.getFirst("showDeleted"));
+            boolean showHidden = "true".equals(url.getFirst("showHidden"));
+            boolean showCompleted = !"false".equals(url.getFirst("showCompleted"));
+
+            List<Task> items = new ArrayList<>();
+            for (Task task : tasks.values()) {
+                if (Boolean.TRUE.equals(task.getDeleted()) && !showDeleted) {
+                    continue;
+                }
+                if (Boolean.TRUE.equals(task.getHidden()) && !showHidden) {
+                    continue;
+                }
+                if (updatedMin != null && Instant.parse(task.getUpdated()).isBefore(updatedMin)) {
+                    continue;
+                }
+                if (!showCompleted && "completed".equals(task.getStatus())) {
+                    continue;
+                }
+                if (!inRange(task.getDue(), url.getFirst("dueMin"), url.getFirst("dueMax"))
+                        || !inRange(task.getCompleted(), url.getFirst("completedMin"), url.getFirst("completedMax"))) {
+                    continue;
+                }
+                items.add(task);
+            }
+            Page<Task> page = Page.of(items, url, maxPageSize);
+            return new Tasks().setItems(page.items).setNextPageToken(page.nextPageToken);
+        }
+
+        private static String position(long position) {
+            return String.format("%020d", position);
+        }
+
+        // Con algún límite, las tareas sin esa fecha quedan fuera
+        private static boolean inRange(String value, Object min, Object max) {
+            if (min == null && max == null) {
+                return true;
+            }
+            if (value == null) {
+                return false;
+            }
+            Instant instant = Instant.parse(value);
+            return (min == null || !instant.isBefore(Instant.parse((String) min)))
+                    && (max == null || !instant.isAfter(Instant.parse((String) max)));
+        }
+    }
+
+    private record Page<T>(List<T> items, String nextPageToken) {
+        private static <T> Page<T> of(List<T> all, GenericUrl url, int maxPageSize) {
+            int offset = url.getFirst("pageToken") != null ? Integer.parseInt((String) url.getFirst("pageToken")) : 0;
+            int size = Math.min(maxPageSize,
+                    url.getFirst("maxResults") != null ? Integer.parseInt((String) url.getFirst("maxResults")) : 20);
+            int end = Math.min(all.size(), offset + size);
+            String next = end < all.size() ? String.valueOf(end) : null;
+            return new Page<>(new ArrayList<>(all.subList(offset, end)), next);
+        }
+    }
+}
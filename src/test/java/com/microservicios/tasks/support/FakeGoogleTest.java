@@ -0,0 +1,31 @@
+package com.microservicios.tasks.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+
+/**
+ * Servicio completo contra un {@link FakeGoogleTasksTransport}, con la configuración de
+ * {@code application-fake-google.properties}. Las clases que no cambian ninguna propiedad comparten un
+ * único contexto de Spring; las que lo necesitan añaden {@code @TestPropertySource}, y las que añaden las
+ * mismas propiedades también lo comparten.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("fake-google")
+@Import(FakeGoogleConfig.class)
+@TestExecutionListeners(listeners = FakeGoogleConfig.ResetListener.class,
+        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+public @interface FakeGoogleTest {
+}
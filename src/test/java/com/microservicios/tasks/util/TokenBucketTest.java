@@ -0,0 +1,83 @@
+package com.microservicios.tasks.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void allowsTheBurstAndThenRefillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 5, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(1)).isZero();
+        }
+        assertThat(bucket.tryAcquire(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.availablePermits()).isZero();
+    }
+
+    @Test
+    void chargesByCostAndLetsOversizedRequestsThroughWithAFullBucket() {
+        TokenBucket bucket = new TokenBucket(1, 10, clock::get);
+
+        assertThat(bucket.tryAcquire(4)).isZero();
+        assertThat(bucket.availablePermits()).isEqualTo(6);
+        assertThat(bucket.tryAcquire(50)).isEqualTo(TimeUnit.SECONDS.toNanos(4));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertThat(bucket.tryAcquire(50)).isZero();
+    }
+
+    @Test
+    void releasedPermitsCanBeReused() {
+        TokenBucket bucket = new TokenBucket(1, 2, clock::get);
+
+        assertThat(bucket.tryAcquire(2)).isZero();
+        bucket.release(1);
+
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isPositive();
+    }
+
+    @Test
+    void neverGrantsMoreThanTheCapacityUnderContention() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0.001, 1000, clock::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (bucket.tryAcquire(1) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(granted).hasValue(1000);
+    }
+}